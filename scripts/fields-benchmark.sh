@@ -0,0 +1,40 @@
+#!/usr/bin/env bash
+# Compara bytes e tempo das listagens completas com as mesmas listagens usando fields=.
+#
+# Uso: scripts/fields-benchmark.sh <userId> [activityId]
+# Variáveis: BASE_URL (padrão http://localhost:8080), RUNS (padrão 20)
+set -euo pipefail
+
+USER_ID=${1:?informe o userId}
+ACTIVITY_ID=${2:-}
+BASE_URL=${BASE_URL:-http://localhost:8080}
+RUNS=${RUNS:-20}
+
+measure() {
+  local url=$1 total=0 bytes=0 out
+  for _ in $(seq "$RUNS"); do
+    out=$(curl -s -o /dev/null -w "%{size_download} %{time_total}" "$url")
+    bytes=${out%% *}
+    total=$(awk -v a="$total" -v b="${out##* }" 'BEGIN { print a + b }')
+  done
+  awk -v b="$bytes" -v t="$total" -v n="$RUNS" 'BEGIN { printf "%10d %12.1f", b, t / n * 1000 }'
+}
+
+compare() {
+  local path=$1 fields=$2 sep='?'
+  [[ $path == *\?* ]] && sep='&'
+  printf "%-52s" "$path"
+  measure "$BASE_URL$path"
+  measure "$BASE_URL$path${sep}fields=$fields"
+  echo
+}
+
+printf "%-52s %10s %12s %10s %12s\n" endpoint "bytes" "ms (média)" "bytes" "ms (fields)"
+compare "/api/activities/user/$USER_ID" "id,title"
+compare "/api/activities/user/$USER_ID/due" "id,title,nextDueDate"
+compare "/api/progress/user/$USER_ID" "id,finishDate,status"
+compare "/api/progress/user/$USER_ID/last30days" "id,finishDate,status"
+compare "/api/progress/date-range?start=$(date -d '-90 days' +%F)&finish=$(date +%F)" "id,finishDate,activityId"
+if [ -n "$ACTIVITY_ID" ]; then
+  compare "/api/progress/activity/$ACTIVITY_ID" "finishDate,status"
+fi
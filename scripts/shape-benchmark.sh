@@ -0,0 +1,54 @@
+#!/usr/bin/env bash
+# Compara tamanho, tempo e CPU do servidor por formato nas listagens de histórico: lista JSON,
+# shape=columnar e CBOR (Accept: application/cbor), cada um com e sem gzip.
+#
+# Uso: scripts/shape-benchmark.sh <userId>
+# Variáveis: BASE_URL (padrão http://localhost:8080), RUNS (padrão 20)
+# A CPU vem de /actuator/metrics/process.cpu.time e inclui a consulta, que é a mesma em todos os
+# formatos: a diferença entre as linhas é o custo de serialização e compressão. Rode sem outra carga.
+set -euo pipefail
+
+USER_ID=${1:?informe o userId}
+BASE_URL=${BASE_URL:-http://localhost:8080}
+RUNS=${RUNS:-20}
+
+# CPU acumulada do processo em ms, na unidade informada pelo actuator
+cpu_ms() {
+  curl -s "$BASE_URL/actuator/metrics/process.cpu.time" | awk '
+    match($0, /"baseUnit":"[^"]*"/) { unit = substr($0, RSTART + 12, RLENGTH - 13) }
+    match($0, /"value":[0-9.eE+-]+/) { value = substr($0, RSTART + 8, RLENGTH - 8) }
+    END { print (unit ~ /^n/ ? value / 1e6 : value * 1000) }'
+}
+
+measure() {
+  local label=$1 url=$2 total=0 bytes=0 out before after
+  shift 2
+  before=$(cpu_ms)
+  for _ in $(seq "$RUNS"); do
+    out=$(curl -s -o /dev/null -w "%{size_download} %{time_total}" "$@" "$url")
+    bytes=${out%% *}
+    total=$(awk -v a="$total" -v b="${out##* }" 'BEGIN { print a + b }')
+  done
+  after=$(cpu_ms)
+  awk -v l="$label" -v b="$bytes" -v t="$total" -v c="$(awk -v a="$after" -v b="$before" 'BEGIN { print a - b }')" \
+    -v n="$RUNS" 'BEGIN { printf "  %-22s %10d %12.1f %14.2f\n", l, b, t / n * 1000, c / n }'
+}
+
+compare() {
+  local path=$1 sep='?'
+  [[ $path == *\?* ]] && sep='&'
+  local columnar="$BASE_URL$path${sep}shape=columnar"
+  echo "$path"
+  measure "json"             "$BASE_URL$path" -H "Accept: application/json"
+  measure "json gzip"        "$BASE_URL$path" -H "Accept: application/json" --compressed
+  measure "columnar"         "$columnar"      -H "Accept: application/json"
+  measure "columnar gzip"    "$columnar"      -H "Accept: application/json" --compressed
+  measure "cbor"             "$BASE_URL$path" -H "Accept: application/cbor"
+  measure "cbor gzip"        "$BASE_URL$path" -H "Accept: application/cbor" --compressed
+  measure "cbor columnar"    "$columnar"      -H "Accept: application/cbor"
+  measure "cbor columnar gz" "$columnar"      -H "Accept: application/cbor" --compressed
+}
+
+printf "  %-22s %10s %12s %14s\n" formato bytes "ms (média)" "CPU ms/req"
+compare "/api/progress/user/$USER_ID"
+compare "/api/progress/date-range?start=$(date -d '-90 days' +%F)&finish=$(date +%F)"
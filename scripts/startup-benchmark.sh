@@ -0,0 +1,71 @@
+#!/usr/bin/env bash
+# Compara tempo de subida e latência da primeira requisição entre JVM, JVM+CDS e native.
+#
+# Builds esperados:
+#   jvm:    mvn -DskipTests package              -> target/TaskManager-0.0.1-SNAPSHOT.jar
+#   cds:    mvn -DskipTests -Pcds package        -> target/app/ (jar extraído + app.jsa)
+#   native: mvn -DskipTests -Pnative native:compile -> target/TaskManager
+#
+# Uso: scripts/startup-benchmark.sh [jvm|cds|native ...]   (padrão: os três)
+# As variáveis SPRING_DATASOURCE_* devem apontar para o banco usado no teste.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+PORT=${PORT:-8080}
+RUNS=${RUNS:-5}
+# Tempo máximo de espera pela subida, em segundos
+STARTUP_TIMEOUT=${STARTUP_TIMEOUT:-120}
+JAR=target/TaskManager-0.0.1-SNAPSHOT.jar
+
+command_for() {
+  case "$1" in
+    jvm)    echo "java -jar $JAR --spring.profiles.active=faststart" ;;
+    cds)    echo "java -XX:SharedArchiveFile=target/app/app.jsa -Dspring.aot.enabled=true -jar target/app/TaskManager-0.0.1-SNAPSHOT.jar --spring.profiles.active=faststart" ;;
+    native) echo "target/TaskManager --spring.profiles.active=faststart" ;;
+    *)      echo "modo desconhecido: $1" >&2; exit 1 ;;
+  esac
+}
+
+now_ms() { date +%s%3N; }
+
+run_once() {
+  local cmd=$1
+  local start ready first pid
+  start=$(now_ms)
+  PORT=$PORT $cmd > /dev/null 2>&1 &
+  pid=$!
+  until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do
+    if ! kill -0 "$pid" 2> /dev/null; then
+      echo "aplicação encerrou antes de subir: $cmd" >&2
+      exit 1
+    fi
+    if [ $(( $(now_ms) - start )) -gt $((STARTUP_TIMEOUT * 1000)) ]; then
+      echo "aplicação não subiu em ${STARTUP_TIMEOUT}s: $cmd" >&2
+      kill "$pid" 2> /dev/null || true
+      exit 1
+    fi
+    sleep 0.01
+  done
+  ready=$(now_ms)
+  curl -sf "http://localhost:$PORT/api/stats/global" > /dev/null
+  first=$(now_ms)
+  kill "$pid"
+  wait "$pid" 2> /dev/null || true
+  echo "$((ready - start)) $((first - ready))"
+}
+
+modes=("$@")
+[ ${#modes[@]} -eq 0 ] && modes=(jvm cds native)
+
+printf "%-8s %12s %18s\n" modo "subida (ms)" "1a requisição (ms)"
+for mode in "${modes[@]}"; do
+  cmd=$(command_for "$mode")
+  total_start=0
+  total_first=0
+  for _ in $(seq "$RUNS"); do
+    read -r s f < <(run_once "$cmd")
+    total_start=$((total_start + s))
+    total_first=$((total_first + f))
+  done
+  printf "%-8s %12d %18d\n" "$mode" $((total_start / RUNS)) $((total_first / RUNS))
+done
@@ -0,0 +1,46 @@
+#!/usr/bin/env bash
+# Compara o resumo em lote (/api/user/batch) com a busca usuário a usuário
+# (profile-with-activities + progress stats) para N usuários consecutivos.
+#
+# Uso: scripts/user-batch-benchmark.sh <primeiro userId> [N=100]
+# Variáveis: BASE_URL (padrão http://localhost:8080), RUNS (padrão 10)
+set -euo pipefail
+
+FIRST=${1:?informe o primeiro userId}
+COUNT=${2:-100}
+BASE_URL=${BASE_URL:-http://localhost:8080}
+RUNS=${RUNS:-10}
+
+ids=$(seq -s, "$FIRST" $((FIRST + COUNT - 1)))
+urls=()
+for id in $(seq "$FIRST" $((FIRST + COUNT - 1))); do
+  urls+=("$BASE_URL/api/user/$id/profile-with-activities" "$BASE_URL/api/progress/user/$id/stats")
+done
+
+now_ms() { date +%s%3N; }
+
+# Um único curl por rodada reaproveita a conexão, como faria um cliente com keep-alive
+time_fanout() {
+  local start bytes
+  start=$(now_ms)
+  bytes=$(curl -s -w "%{size_download}\n" -o /dev/null "${urls[@]}" | awk '{ s += $1 } END { print s }')
+  echo "$(( $(now_ms) - start )) $bytes"
+}
+
+time_batch() {
+  local start bytes
+  start=$(now_ms)
+  bytes=$(curl -s -w "%{size_download}" -o /dev/null "$BASE_URL/api/user/batch?ids=$ids")
+  echo "$(( $(now_ms) - start )) $bytes"
+}
+
+printf "%-10s %12s %10s %10s\n" modo requisições "ms (média)" bytes
+for mode in fanout batch; do
+  total=0
+  for _ in $(seq "$RUNS"); do
+    read -r ms bytes < <(time_$mode)
+    total=$((total + ms))
+  done
+  requests=$([ "$mode" = fanout ] && echo $((COUNT * 2)) || echo 1)
+  printf "%-10s %12d %10d %10d\n" "$mode" "$requests" $((total / RUNS)) "$bytes"
+done
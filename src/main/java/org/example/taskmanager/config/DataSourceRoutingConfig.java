@@ -0,0 +1,96 @@
+package org.example.taskmanager.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.example.taskmanager.datasource.ReadYourWritesTracker;
+import org.example.taskmanager.datasource.ReplicaPool;
+import org.example.taskmanager.datasource.ReplicaRoutingDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+// Roteamento primário/réplicas, ativado com app.datasource.replicas.enabled=true
+@Configuration
+@EnableConfigurationProperties(ReplicaProperties.class)
+@ConditionalOnProperty(prefix = "app.datasource.replicas", name = "enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(ReplicaProperties properties) {
+        return new ReadYourWritesTracker(properties.getStickiness());
+    }
+
+    @Bean
+    public ReplicaPool replicaPool(DataSourceProperties dataSourceProperties, ReplicaProperties properties,
+                                   Environment environment) {
+        List<ReplicaPool.Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < properties.getNodes().size(); i++) {
+            ReplicaProperties.Node node = properties.getNodes().get(i);
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(dataSourceProperties.getDriverClassName())
+                    .url(node.getUrl())
+                    .username(node.getUsername())
+                    .password(node.getPassword())
+                    .build();
+            // Mesmo dimensionamento e timeouts do primário
+            Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+            dataSource.setPoolName("replica-" + i);
+            dataSource.setReadOnly(true);
+            replicas.add(new ReplicaPool.Replica("replica-" + i, dataSource));
+        }
+        return new ReplicaPool(replicas, properties.getMaxLag(), properties.getLagQuery(), properties.getLagColumn());
+    }
+
+    // Pool do primário com spring.datasource.hikari.* aplicado, como no pool criado pelo Boot
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        primary.setPoolName("primary");
+        return primary;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaPool replicaPool,
+                                 ReadYourWritesTracker tracker) {
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primaryDataSource, replicaPool, tracker));
+    }
+
+    @Bean
+    public ReplicaHealthCheck replicaHealthCheck(ReplicaPool replicaPool, ReadYourWritesTracker tracker) {
+        return new ReplicaHealthCheck(replicaPool, tracker);
+    }
+
+    static class ReplicaHealthCheck {
+        private final ReplicaPool replicaPool;
+        private final ReadYourWritesTracker tracker;
+
+        ReplicaHealthCheck(ReplicaPool replicaPool, ReadYourWritesTracker tracker) {
+            this.replicaPool = replicaPool;
+            this.tracker = tracker;
+        }
+
+        @Scheduled(fixedDelayString = "${app.datasource.replicas.health-check-interval:5000}")
+        public void run() {
+            replicaPool.checkHealth();
+            tracker.purgeExpired();
+        }
+    }
+}
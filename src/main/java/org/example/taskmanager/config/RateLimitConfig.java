@@ -0,0 +1,74 @@
+package org.example.taskmanager.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.taskmanager.ratelimit.GradientConcurrencyLimiter;
+import org.example.taskmanager.ratelimit.RateLimitFilter;
+import org.example.taskmanager.ratelimit.RateLimiterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.scheduling.annotation.Scheduled;
+
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+@ConditionalOnProperty(prefix = "app.rate-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+
+    @Bean
+    public RateLimiterRegistry rateLimiterRegistry(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        RateLimiterRegistry registry = new RateLimiterRegistry(properties);
+        Gauge.builder("ratelimit.buckets", registry, RateLimiterRegistry::size).register(meterRegistry);
+        return registry;
+    }
+
+    @Bean
+    public GradientConcurrencyLimiter concurrencyLimiter(RateLimitProperties properties,
+                                                         MeterRegistry meterRegistry) {
+        RateLimitProperties.Concurrency concurrency = properties.getConcurrency();
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(concurrency.getInitialLimit(),
+                concurrency.getMinLimit(), concurrency.getMaxLimit(), concurrency.getTolerance(),
+                concurrency.getSmoothing());
+        Gauge.builder("ratelimit.concurrency.limit", limiter, GradientConcurrencyLimiter::getLimit)
+                .register(meterRegistry);
+        Gauge.builder("ratelimit.concurrency.inflight", limiter, GradientConcurrencyLimiter::getInFlight)
+                .register(meterRegistry);
+        Gauge.builder("ratelimit.concurrency.min.rtt", limiter, GradientConcurrencyLimiter::getMinRttMillis)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        return limiter;
+    }
+
+    // Roda antes do Spring Security para descartar o excesso o mais cedo possível
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(RateLimiterRegistry registry,
+                                                                   GradientConcurrencyLimiter limiter,
+                                                                   MeterRegistry meterRegistry) {
+        FilterRegistrationBean<RateLimitFilter> registration =
+                new FilterRegistrationBean<>(new RateLimitFilter(registry, limiter, meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+
+    @Bean
+    public BucketEviction bucketEviction(RateLimiterRegistry registry) {
+        return new BucketEviction(registry);
+    }
+
+    static class BucketEviction {
+        private final RateLimiterRegistry registry;
+
+        BucketEviction(RateLimiterRegistry registry) {
+            this.registry = registry;
+        }
+
+        @Scheduled(fixedDelay = 60_000)
+        public void run() {
+            registry.evictIdle(300_000);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.taskmanager.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.example.taskmanager.ratelimit.EndpointClass;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    private Budget auth = new Budget(10, 1);
+    private Budget expensive = new Budget(5, 0.2);
+    private Budget standard = new Budget(100, 20);
+
+    private Concurrency concurrency = new Concurrency();
+
+    public Budget budgetFor(EndpointClass endpointClass) {
+        return switch (endpointClass) {
+            case AUTH -> auth;
+            case EXPENSIVE -> expensive;
+            case DEFAULT -> standard;
+        };
+    }
+
+    @Getter
+    @Setter
+    public static class Budget {
+        // Rajada máxima
+        private long capacity;
+        // Requisições sustentadas por segundo
+        private double refillPerSecond;
+
+        public Budget() {
+        }
+
+        public Budget(long capacity, double refillPerSecond) {
+            this.capacity = capacity;
+            this.refillPerSecond = refillPerSecond;
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Concurrency {
+        private int initialLimit = 50;
+        private int minLimit = 10;
+        private int maxLimit = 400;
+        // Quanto a latência pode subir sobre a mínima antes de reduzir o limite
+        private double tolerance = 2.0;
+        private double smoothing = 0.2;
+    }
+}
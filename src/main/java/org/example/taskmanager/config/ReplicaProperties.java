@@ -0,0 +1,38 @@
+package org.example.taskmanager.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.datasource.replicas")
+public class ReplicaProperties {
+
+    private boolean enabled = false;
+
+    private List<Node> nodes = new ArrayList<>();
+
+    // Tempo em que o usuário lê do primário após a própria escrita
+    private Duration stickiness = Duration.ofSeconds(5);
+
+    // Atraso máximo aceito antes de tirar a réplica do rodízio
+    private Duration maxLag = Duration.ofSeconds(10);
+
+    // Consulta de atraso (MySQL 8); vazio apenas valida a conexão
+    private String lagQuery = "SHOW REPLICA STATUS";
+
+    private String lagColumn = "Seconds_Behind_Source";
+
+    @Getter
+    @Setter
+    public static class Node {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
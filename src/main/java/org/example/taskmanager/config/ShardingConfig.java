@@ -0,0 +1,88 @@
+package org.example.taskmanager.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.example.taskmanager.datasource.ShardRouter;
+import org.example.taskmanager.datasource.ShardRoutingDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.context.WebApplicationContext;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    // Sempre disponível: sem sharding funciona como um único shard
+    @Bean
+    public ShardRouter shardRouter(ShardingProperties properties, PlatformTransactionManager transactionManager,
+                                   ApplicationContext context) {
+        if (!properties.isEnabled()) {
+            return new ShardRouter(1, 0, transactionManager);
+        }
+        Long legacyMaxId = properties.getLegacyMaxId();
+        if (legacyMaxId == null) {
+            // Sem o limite, ids legados seriam roteados pelo offset para o shard errado. Só a migração,
+            // que roda sem servidor web, sobe antes de o valor existir; a falha acontece antes de
+            // o servidor aceitar requisições.
+            boolean migrating = properties.getMigration().isEnabled() && !(context instanceof WebApplicationContext);
+            if (!migrating) {
+                throw new IllegalStateException("app.sharding.enabled=true exige app.sharding.legacy-max-id " +
+                        "(0 quando não há dados de antes do sharding); rode antes a migração com o perfil shard-migration");
+            }
+            legacyMaxId = 0L;
+        }
+        return new ShardRouter(properties.getNodes().size(), legacyMaxId, transactionManager);
+    }
+
+    // Um pool por shard, ativado com app.sharding.enabled=true.
+    // Não deve ser combinado com app.datasource.replicas.enabled.
+    @Configuration
+    @ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+    static class ShardedDataSourceConfig {
+
+        @Bean
+        @Primary
+        public DataSource dataSource(DataSourceProperties dataSourceProperties, ShardingProperties properties,
+                                     Environment environment) {
+            List<ShardingProperties.Node> nodes = properties.getNodes();
+            if (nodes.isEmpty()) {
+                throw new IllegalStateException("app.sharding.enabled=true exige ao menos um nó em app.sharding.nodes");
+            }
+
+            List<DataSource> shards = new ArrayList<>();
+            for (int i = 0; i < nodes.size(); i++) {
+                ShardingProperties.Node node = nodes.get(i);
+                HikariDataSource dataSource = DataSourceBuilder.create()
+                        .type(HikariDataSource.class)
+                        .driverClassName(dataSourceProperties.getDriverClassName())
+                        .url(node.getUrl())
+                        .username(node.getUsername())
+                        .password(node.getPassword())
+                        .build();
+                Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+                dataSource.setPoolName("shard-" + i);
+                // Ids gerados no shard i são sempre congruentes a i + 1 (mod N)
+                if (properties.isSessionAutoIncrement()) {
+                    dataSource.setConnectionInitSql("SET SESSION auto_increment_increment = " + nodes.size()
+                            + ", auto_increment_offset = " + (i + 1));
+                }
+                shards.add(dataSource);
+            }
+            return new LazyConnectionDataSourceProxy(new ShardRoutingDataSource(shards));
+        }
+    }
+}
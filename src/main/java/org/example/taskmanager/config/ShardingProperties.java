@@ -0,0 +1,45 @@
+package org.example.taskmanager.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.sharding")
+public class ShardingProperties {
+
+    private boolean enabled = false;
+
+    // A ordem dos nós define o número do shard; não pode mudar depois de haver dados
+    private List<Node> nodes = new ArrayList<>();
+
+    // Maior id gerado antes do sharding (informado pela ShardMigration); ids até ele ficam no shard 0.
+    // Obrigatório com sharding (0 quando não há dados de antes dele): sem o valor a aplicação não sobe
+    private Long legacyMaxId;
+
+    // Define auto_increment_increment/offset em cada conexão (MySQL). Desligue quando os servidores
+    // dos shards já tiverem esses valores configurados (my.cnf) ou os gerarem de outra forma
+    private boolean sessionAutoIncrement = true;
+
+    private Migration migration = new Migration();
+
+    @Getter
+    @Setter
+    public static class Migration {
+        // Executa a ShardMigration (perfil shard-migration, sem servidor web): copia o schema do
+        // shard 0 e ajusta os AUTO_INCREMENT
+        private boolean enabled = false;
+    }
+
+    @Getter
+    @Setter
+    public static class Node {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
@@ -0,0 +1,36 @@
+package org.example.taskmanager.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import lombok.RequiredArgsConstructor;
+import org.example.taskmanager.datasource.ShardRouter;
+import org.example.taskmanager.datasource.ShardRoutingInterceptor;
+import org.example.taskmanager.datasource.UserRoutingInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ShardRouter shardRouter;
+    private final Jackson2ObjectMapperBuilder jacksonBuilder;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new UserRoutingInterceptor()).addPathPatterns("/api/**");
+        registry.addInterceptor(new ShardRoutingInterceptor(shardRouter)).addPathPatterns("/api/**");
+    }
+
+    // Accept: application/cbor devolve o mesmo payload em CBOR, com a mesma configuração do Jackson do JSON
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new MappingJackson2CborHttpMessageConverter(
+                jacksonBuilder.factory(new CBORFactory()).build()));
+    }
+}
@@ -4,10 +4,17 @@ import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import org.example.taskmanager.entity.Activity;
 import org.example.taskmanager.entity.User;
+import org.example.taskmanager.event.ActivityChangedEvent;
+import org.example.taskmanager.event.ChangeType;
 import org.example.taskmanager.repository.ActivityRepository;
+import org.example.taskmanager.repository.ActivityRepositoryCustom;
+import org.example.taskmanager.repository.FieldProjection;
 import org.example.taskmanager.repository.UserRepository;
+import org.example.taskmanager.service.DueDateService;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
@@ -21,6 +28,9 @@ import java.util.Optional;
 public class ActivityController {
     private final ActivityRepository activityRepository;
     private final UserRepository userRepository;
+    private final DueDateService dueDateService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
     //DTOs
     record CreateActivityRequest(String title, String description, String frequency, LocalDate startDate) {
@@ -30,10 +40,10 @@ public class ActivityController {
     }
 
     record ActivityResponse(Long id, String title, String description, String frequency, LocalDate startDate,
-                            boolean active) {
+                            boolean active, LocalDate nextDueDate) {
         public ActivityResponse(Activity activity) {
             this(activity.getId(), activity.getTitle(), activity.getDescription(), activity.getFrequency().name(),
-                    activity.getInitDate(), activity.getActive());
+                    activity.getInitDate(), activity.getActive(), activity.getNextDueDate());
         }
     }
 
@@ -43,15 +53,41 @@ public class ActivityController {
     record MessageResponse(String message) {
     }
 
-    //Ver todas as atividades
+    //Ver todas as atividades (fields=id,title,... lê só essas colunas)
     @GetMapping("/user/{user_id}")
-    public ResponseEntity<?> seeAllActivities(@PathVariable Long user_id) {
+    public ResponseEntity<?> seeAllActivities(@PathVariable Long user_id,
+                                              @RequestParam(required = false) List<String> fields) {
         try {
+            if (fields != null && !fields.isEmpty()) {
+                return ResponseEntity.ok(activityRepository.findFieldsByUserId(user_id, true, null, null, validFields(fields)));
+            }
             List<Activity> activities = activityRepository.findByUserIdAndActiveTrue(user_id);
 
             List<ActivityResponse> responses = activities.stream().map(ActivityResponse::new)
                     .toList();
             return ResponseEntity.ok(responses);
+        } catch (FieldProjection.UnknownFieldException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ErrorResponse("Erro ao buscar as atividades"));
+        }
+    }
+
+    //Atividades que vencem hoje ou estão atrasadas
+    @GetMapping("/user/{user_id}/due")
+    public ResponseEntity<?> seeDueActivities(@PathVariable Long user_id,
+                                              @RequestParam(required = false) List<String> fields) {
+        try {
+            if (fields != null && !fields.isEmpty()) {
+                return ResponseEntity.ok(activityRepository.findFieldsByUserId(user_id, true, null,
+                        LocalDate.now(), validFields(fields)));
+            }
+            List<ActivityResponse> responses = activityRepository.findDueByUserId(user_id, LocalDate.now())
+                    .stream().map(ActivityResponse::new).toList();
+            return ResponseEntity.ok(responses);
+        } catch (FieldProjection.UnknownFieldException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ErrorResponse("Erro ao buscar as atividades"));
@@ -99,8 +135,15 @@ public class ActivityController {
             newActivity.setInitDate(request.startDate());
             newActivity.setActive(true);
             newActivity.setUser(userOpt.get());
+            newActivity.setNextDueDate(DueDateService.nextDueDate(newActivity.getFrequency(),
+                    newActivity.getInitDate(), null));
 
-            Activity savedActivity = activityRepository.save(newActivity);
+            //Atividade e evento do outbox são confirmados juntos
+            Activity savedActivity = transactionTemplate.execute(status -> {
+                Activity saved = activityRepository.save(newActivity);
+                eventPublisher.publishEvent(new ActivityChangedEvent(ChangeType.CREATED, user_id, saved.getId(), false, true));
+                return saved;
+            });
 
             return ResponseEntity.status(HttpStatus.CREATED).body(new ActivityResponse(savedActivity));
 
@@ -119,6 +162,7 @@ public class ActivityController {
                 return ResponseEntity.notFound().build();
             }
             Activity activity = activityOpt.get();
+            boolean wasActive = activity.getActive();
 
             //atualizar os campos
             if (request.title() != null) {
@@ -134,7 +178,17 @@ public class ActivityController {
                 activity.setInitDate(request.startDate());
             }
 
-            Activity savedActivity = activityRepository.save(activity);
+            Activity savedActivity = transactionTemplate.execute(status -> {
+                Activity saved = activityRepository.save(activity);
+
+                //frequência ou início mudam o calendário de vencimentos
+                if (request.frequency != null || request.startDate != null) {
+                    dueDateService.refresh(saved);
+                }
+                eventPublisher.publishEvent(new ActivityChangedEvent(ChangeType.UPDATED, user_id, activity_id,
+                        wasActive, saved.getActive()));
+                return saved;
+            });
 
             return ResponseEntity.ok(new ActivityResponse(savedActivity));
         } catch (Exception e) {
@@ -152,8 +206,12 @@ public class ActivityController {
                 return ResponseEntity.notFound().build();
             }
             Activity activity = activityOpt.get();
+            boolean wasActive = activity.getActive();
             activity.setActive(false);
-            activityRepository.save(activity);
+            transactionTemplate.executeWithoutResult(status -> {
+                activityRepository.save(activity);
+                eventPublisher.publishEvent(new ActivityChangedEvent(ChangeType.DELETED, user_id, activity_id, wasActive, false));
+            });
 
             return ResponseEntity.ok(new MessageResponse("Atividade deletada com sucesso"));
         } catch (Exception e) {
@@ -165,15 +223,21 @@ public class ActivityController {
 
     // Buscar atividade por frequencia
     @GetMapping("/user/{user_id}/frequency/{frequency}")
-    public ResponseEntity<?> searchByFrequency(@PathVariable Long user_id, @PathVariable String frequency) {
+    public ResponseEntity<?> searchByFrequency(@PathVariable Long user_id, @PathVariable String frequency,
+                                               @RequestParam(required = false) List<String> fields) {
         try {
             Activity.Frequency freq = Activity.Frequency.valueOf(frequency.toUpperCase());
+            if (fields != null && !fields.isEmpty()) {
+                return ResponseEntity.ok(activityRepository.findFieldsByUserId(user_id, null, freq, null, validFields(fields)));
+            }
 
             List<Activity> activities =  activityRepository.findByUserIdAndFrequency(user_id, freq);
 
             List<ActivityResponse> responses = activities.stream()
                     .map(ActivityResponse::new).toList();
             return ResponseEntity.ok(responses);
+        } catch (FieldProjection.UnknownFieldException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(new ErrorResponse("Frequência inválida. Use: DAILY, WEEKLY, MONTHLY"));
@@ -182,5 +246,10 @@ public class ActivityController {
                     .body(new ErrorResponse("Erro ao buscar atividade"));
         }
     }
-}
 
+    // fields= é validado aqui e não no repositório: lá dentro a exceção seria traduzida pelo
+    // proxy do Spring Data (InvalidDataAccessApiUsageException) e a resposta viraria 500
+    private static List<String> validFields(List<String> fields) {
+        return FieldProjection.normalize(fields, ActivityRepositoryCustom.FIELDS);
+    }
+}
@@ -1,7 +1,13 @@
 package org.example.taskmanager.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.example.taskmanager.datasource.ShardRouter;
+import org.example.taskmanager.event.ChangeType;
+import org.example.taskmanager.event.UserChangedEvent;
 import org.example.taskmanager.repository.UserRepository;
+import org.example.taskmanager.service.EmailDirectoryService;
+import org.example.taskmanager.service.EmailExistenceFilter;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -19,6 +25,10 @@ import java.util.Optional;
 public class AuthController {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ShardRouter shardRouter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EmailDirectoryService emailDirectoryService;
+    private final EmailExistenceFilter emailExistenceFilter;
 
     record AccountCreateRequest(String name, String email, String password, LocalDate birthDate) {
     }
@@ -51,21 +61,35 @@ public class AuthController {
     @PostMapping("/register")
     public ResponseEntity<?> criarConta(@RequestBody AccountCreateRequest request) {
         try {
-            //verifica se email já existe
-            if (userRepository.existsByEmail(request.email())) {
+            //reserva o email no diretório global (shard 0) antes de procurar nos usuários existentes;
+            //o filtro responde sem banco quando o email não existe
+            if (!emailDirectoryService.claim(request.email())) {
                 return ResponseEntity.badRequest().body(new ErrorResponse("Email já em uso"));
             }
-
-            User newUser = new User();
-            newUser.setName(request.name());
-            newUser.setEmail(request.email());
-            newUser.setHashPassword(passwordEncoder.encode(request.password()));
-            newUser.setBirthDate(request.birthDate());
-
-
-            User savedUser = userRepository.save(newUser);
-
-            return ResponseEntity.status(HttpStatus.CREATED).body(new UserResponse(savedUser));
+            boolean created = false;
+            try {
+                if (emailExistenceFilter.exists(request.email())) {
+                    return ResponseEntity.badRequest().body(new ErrorResponse("Email já em uso"));
+                }
+
+                User newUser = new User();
+                newUser.setName(request.name());
+                newUser.setEmail(request.email());
+                newUser.setHashPassword(passwordEncoder.encode(request.password()));
+                newUser.setBirthDate(request.birthDate());
+
+                shardRouter.routeNewUser();
+                User savedUser = userRepository.save(newUser);
+                emailDirectoryService.assign(savedUser.getEmail(), savedUser.getId());
+                created = true;
+                eventPublisher.publishEvent(new UserChangedEvent(ChangeType.CREATED, savedUser.getId(), savedUser.getEmail()));
+
+                return ResponseEntity.status(HttpStatus.CREATED).body(new UserResponse(savedUser));
+            } finally {
+                if (!created) {
+                    emailDirectoryService.release(request.email());
+                }
+            }
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ErrorResponse("Erro interno no servidor!"));
 
@@ -75,7 +99,7 @@ public class AuthController {
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestBody LoginRequest request) {
         try {
-            Optional<User> userOpt = userRepository.findByEmail(request.email());
+            Optional<User> userOpt = shardRouter.findFirst(() -> userRepository.findByEmail(request.email()));
 
             if (userOpt.isEmpty()) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
@@ -100,7 +124,7 @@ public class AuthController {
     @PostMapping("/forgot-password")
     public ResponseEntity<?> forgotPassword(@RequestBody RecuperarSenhaRequest request) {
         try {
-            Optional<User> userOpt = userRepository.findByEmail(request.email());
+            Optional<User> userOpt = shardRouter.findFirst(() -> userRepository.findByEmail(request.email()));
             if (userOpt.isEmpty()) {
                 return ResponseEntity.ok(new MessageResponse("Se o email existir, você receberá instruções " +
                         "para redefinir a password"));
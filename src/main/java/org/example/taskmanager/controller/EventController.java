@@ -0,0 +1,27 @@
+package org.example.taskmanager.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.taskmanager.event.ChangeStream;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/events")
+@RequiredArgsConstructor
+public class EventController {
+
+    private final ChangeStream changeStream;
+
+    //Stream de alterações de atividades e progresso do usuário (429 quando excede o limite de conexões)
+    @GetMapping(value = "/user/{userId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(@PathVariable Long userId) {
+        SseEmitter emitter = changeStream.subscribe(userId);
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+}
@@ -1,15 +1,34 @@
 package org.example.taskmanager.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.example.taskmanager.datasource.ShardRouter;
+import org.example.taskmanager.datasource.UserRoutingContext;
 import org.example.taskmanager.entity.Activity;
 import org.example.taskmanager.entity.Progress;
+import org.example.taskmanager.entity.ProgressArchive;
+import org.example.taskmanager.event.ChangeType;
+import org.example.taskmanager.event.ProgressChangedEvent;
 import org.example.taskmanager.repository.ActivityRepository;
+import org.example.taskmanager.repository.FieldProjection;
+import org.example.taskmanager.repository.ProgressArchiveRepository;
 import org.example.taskmanager.repository.ProgressRepository;
+import org.example.taskmanager.repository.ProgressRepositoryCustom;
+import org.example.taskmanager.repository.ProgressUserColumn;
+import org.example.taskmanager.service.DueDateService;
+import org.example.taskmanager.service.GlobalCounters;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 import java.util.Optional;
 import java.util.ResourceBundle;
 
@@ -19,7 +38,14 @@ import java.util.ResourceBundle;
 public class ProgressController {
 
     private final ProgressRepository progressRepository;
+    private final ProgressArchiveRepository progressArchiveRepository;
     private final ActivityRepository activityRepository;
+    private final ShardRouter shardRouter;
+    private final DueDateService dueDateService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final GlobalCounters globalCounters;
+    private final TransactionTemplate transactionTemplate;
+    private final ProgressUserColumn progressUserColumn;
 
     record CreateProgressRequest(Long activityId, LocalDate finishDate) {}
 
@@ -34,6 +60,31 @@ public class ProgressController {
         }
     }
 
+    // Formato colunar para listas grandes: titulos das atividades em dicionario e status como codigos
+    record ProgressColumnsResponse(List<String> statuses, Map<Long, String> activities, long[] ids,
+                                   LocalDate[] finishDates, int[] statusCodes, long[] activityIds) {
+        static final List<String> STATUSES = Arrays.stream(Progress.Status.values()).map(Progress.Status::toString).toList();
+
+        static ProgressColumnsResponse of(List<ProgressResponse> responses) {
+            int size = responses.size();
+            Map<Long, String> activities = new LinkedHashMap<>();
+            long[] ids = new long[size];
+            LocalDate[] finishDates = new LocalDate[size];
+            int[] statusCodes = new int[size];
+            long[] activityIds = new long[size];
+
+            for (int i = 0; i < size; i++) {
+                ProgressResponse response = responses.get(i);
+                ids[i] = response.id();
+                finishDates[i] = response.finishDate();
+                statusCodes[i] = STATUSES.indexOf(response.status());
+                activityIds[i] = response.activityId();
+                activities.putIfAbsent(response.activityId(), response.activityTitle());
+            }
+            return new ProgressColumnsResponse(STATUSES, activities, ids, finishDates, statusCodes, activityIds);
+        }
+    }
+
     record ErrorResponse(String error){}
     record MessageResponse(String message){}
     record ProgressStatsResponse(long totalFinished, Long totalStarted, double completionRate) {}
@@ -42,6 +93,7 @@ public class ProgressController {
     @PostMapping("/create")
     public ResponseEntity<?> create(@RequestBody CreateProgressRequest request){
         try {
+            shardRouter.route(request.activityId());
             Optional<Activity> activityOpt = activityRepository.findById(request.activityId);
 
             if (activityOpt.isEmpty()) {
@@ -49,11 +101,13 @@ public class ProgressController {
             }
 
             Activity activity = activityOpt.get();
+            UserRoutingContext.set(activity.getUser().getId());
             LocalDate finishDate = request.finishDate() != null ? request.finishDate() : LocalDate.now();
 
-            //Verificar se já existe progresso para esta data
+            //Verificar se já existe progresso para esta data (também entre os arquivados)
             Optional <Progress> existingProgress = progressRepository.findByActivityIdAndFinishDate(request.activityId, finishDate);
-            if (existingProgress.isPresent()) {
+            if (existingProgress.isPresent()
+                    || progressArchiveRepository.existsByActivityIdAndFinishDate(request.activityId, finishDate)) {
                 return ResponseEntity.badRequest().body(new ErrorResponse("Atividade já foi concluida nesta data"));
             }
 
@@ -62,7 +116,14 @@ public class ProgressController {
             progress.setFinishDate(finishDate);
             progress.setStatus(Progress.Status.FINISHED);
 
-            Progress savedProgress = progressRepository.save(progress);
+            //Progresso, vencimento e evento do outbox são confirmados juntos
+            Progress savedProgress = transactionTemplate.execute(status -> {
+                Progress saved = progressRepository.save(progress);
+                dueDateService.onProgressCreated(activity, finishDate);
+                eventPublisher.publishEvent(new ProgressChangedEvent(ChangeType.CREATED, saved.getUserId(),
+                        saved.getId(), activity.getId(), finishDate, saved.getStatus(), activity.getFrequency()));
+                return saved;
+            });
 
             return ResponseEntity.status(HttpStatus.CREATED).body(new ProgressResponse(savedProgress));
 
@@ -74,27 +135,44 @@ public class ProgressController {
 
     //buscar progresso por atividade
     @GetMapping("/activity/{activityId}")
-    public ResponseEntity<?> getProgressActivity(@PathVariable Long activityId) {
+    public ResponseEntity<?> getProgressActivity(@PathVariable Long activityId,
+                                                 @RequestParam(required = false) List<String> fields) {
         try {
+            if (fields != null && !fields.isEmpty()) {
+                return ResponseEntity.ok(withArchivedFields(null, activityId, null, null, fields));
+            }
             List<Progress> progressList = progressRepository.findByActivityIdOrderByFinishDateDesc(activityId);
 
-            List<ProgressResponse> progressResponse = progressList.stream().map(ProgressResponse::new).toList();
+            List<ProgressResponse> progressResponse = withArchived(progressList,
+                    progressArchiveRepository.findByActivityIdOrderByFinishDateDesc(activityId));
 
             return ResponseEntity.ok(progressResponse);
+        } catch (FieldProjection.UnknownFieldException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ErrorResponse("Erro interno no servidor!"));
         }
     }
 
-    //buscar progresso por usuario
+    //buscar progresso por usuario (fields= tem precedência sobre shape)
     @GetMapping("/user/{userId}")
-    public ResponseEntity<?> getProgressUser(@PathVariable Long userId) {
+    public ResponseEntity<?> getProgressUser(@PathVariable Long userId,
+                                             @RequestParam(required = false) String shape,
+                                             @RequestParam(required = false) List<String> fields) {
         try {
-            List<Progress> progressList = progressRepository.findByUserId(userId);
+            if (fields != null && !fields.isEmpty()) {
+                return ResponseEntity.ok(withArchivedFields(userId, null, null, null, fields));
+            }
+            List<Progress> progressList = progressUserColumn.isBackfilled()
+                    ? progressRepository.findByUserId(userId)
+                    : progressRepository.findByActivityUserId(userId);
 
-            List<ProgressResponse> progressResponse = progressList.stream().map(ProgressResponse::new).toList();
+            List<ProgressResponse> progressResponse = withArchived(progressList,
+                    progressArchiveRepository.findByUserIdOrderByFinishDateDesc(userId));
 
-            return ResponseEntity.ok(progressResponse);
+            return listResponse(progressResponse, shape);
+        } catch (FieldProjection.UnknownFieldException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ErrorResponse("Erro interno no servidor!"));
@@ -103,13 +181,22 @@ public class ProgressController {
 
     //Busca o progresso de hoje
     @GetMapping("/user/{userId}/today")
-    public ResponseEntity<?> getProgressUserToday(@PathVariable Long userId) {
+    public ResponseEntity<?> getProgressUserToday(@PathVariable Long userId,
+                                                  @RequestParam(required = false) List<String> fields) {
         try {
-            List<Progress> progressList = progressRepository.findProgressToday(userId, LocalDate.now());
+            if (fields != null && !fields.isEmpty()) {
+                LocalDate today = LocalDate.now();
+                return ResponseEntity.ok(progressRepository.findFields(userId, null, today, today, validFields(fields)));
+            }
+            List<Progress> progressList = progressUserColumn.isBackfilled()
+                    ? progressRepository.findProgressToday(userId, LocalDate.now())
+                    : progressRepository.findProgressTodayByActivityUser(userId, LocalDate.now());
 
             List<ProgressResponse> progressResponse = progressList.stream().map(ProgressResponse::new).toList();
 
             return ResponseEntity.ok(progressResponse);
+        } catch (FieldProjection.UnknownFieldException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ErrorResponse("Erro interno no servidor!"));
@@ -120,14 +207,16 @@ public class ProgressController {
     @GetMapping("/user/{userId}/stats")
     public ResponseEntity<?> getProgressStats(@PathVariable Long userId) {
         try{
-            long totalFinished = progressRepository.countByUserAndStatus(userId, Progress.Status.FINISHED);
-            long totalStarted = progressRepository.countByUserAndStatus(userId, Progress.Status.STARTED);
+            long totalFinished = countByUserAndStatus(userId, Progress.Status.FINISHED)
+                    + progressArchiveRepository.countByUserIdAndStatus(userId, Progress.Status.FINISHED);
+            long totalStarted = countByUserAndStatus(userId, Progress.Status.STARTED)
+                    + progressArchiveRepository.countByUserIdAndStatus(userId, Progress.Status.STARTED);
 
             double completionRate = (totalStarted + totalFinished) > 0 ?
                     (double) totalFinished / (totalStarted + totalFinished) * 100 : 0;
 
             return ResponseEntity.ok(new ProgressStatsResponse(totalFinished, totalStarted,
-                    Math.round(completionRate * 100)/100));
+                    Math.round(completionRate * 100) / 100.0));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ErrorResponse("Erro interno no servidor!"));
@@ -138,13 +227,21 @@ public class ProgressController {
     @DeleteMapping("/{progressId}")
     public ResponseEntity<?> deleteProgress(@PathVariable Long progressId) {
         try {
-            Optional<Progress> progressOpt = progressRepository.findById(progressId);
+            Optional<Progress> progressOpt = progressRepository.findWithActivityById(progressId);
 
             if (progressOpt.isEmpty()) {
-                return ResponseEntity.badRequest().body(new ErrorResponse("Progresso nao encontrado"));
+                return deleteArchivedProgress(progressId);
             }
+            UserRoutingContext.set(progressOpt.get().getUserId());
 
-            progressRepository.deleteById(progressId);
+            Progress progress = progressOpt.get();
+            transactionTemplate.executeWithoutResult(status -> {
+                progressRepository.deleteById(progressId);
+                dueDateService.refresh(progress.getActivity());
+                eventPublisher.publishEvent(new ProgressChangedEvent(ChangeType.DELETED, progress.getUserId(),
+                        progressId, progress.getActivity().getId(), progress.getFinishDate(), progress.getStatus(),
+                        progress.getActivity().getFrequency()));
+            });
 
             return ResponseEntity.ok(new MessageResponse("Deletado com sucesso!"));
         }catch (Exception e) {
@@ -153,16 +250,45 @@ public class ProgressController {
         }
     }
 
+    // As listagens também devolvem progressos arquivados, então eles podem ser removidos pelo mesmo id
+    private ResponseEntity<?> deleteArchivedProgress(Long progressId) {
+        Optional<ProgressArchive> archivedOpt = progressArchiveRepository.findById(progressId);
+        if (archivedOpt.isEmpty()) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("Progresso nao encontrado"));
+        }
+        ProgressArchive archived = archivedOpt.get();
+        UserRoutingContext.set(archived.getUserId());
+
+        // O arquivo não tem chave estrangeira: a atividade pode já ter sido removida
+        Optional<Activity> activityOpt = activityRepository.findById(archived.getActivityId());
+        transactionTemplate.executeWithoutResult(status -> {
+            progressArchiveRepository.deleteById(progressId);
+            activityOpt.ifPresent(activity -> {
+                dueDateService.refresh(activity);
+                eventPublisher.publishEvent(new ProgressChangedEvent(ChangeType.DELETED, archived.getUserId(),
+                        progressId, activity.getId(), archived.getFinishDate(), archived.getStatus(),
+                        activity.getFrequency()));
+            });
+        });
+
+        return ResponseEntity.ok(new MessageResponse("Deletado com sucesso!"));
+    }
+
     //Buscar por periodo
     @GetMapping("/date-range")
-    public ResponseEntity<?> getProgressByDateRange(@RequestParam LocalDate start, @RequestParam LocalDate finish) {
+    public ResponseEntity<?> getProgressByDateRange(@RequestParam LocalDate start, @RequestParam LocalDate finish,
+                                                    @RequestParam(required = false) String shape,
+                                                    @RequestParam(required = false) List<String> fields) {
         try {
-            List<Progress> progressList = progressRepository.findByFinishDateBetween(start, finish);
-
-            List<ProgressResponse> progressResponse = progressList.stream()
-                    .map(ProgressResponse::new)
-                    .toList();
-            return ResponseEntity.ok(progressResponse);
+            if (fields != null && !fields.isEmpty()) {
+                return ResponseEntity.ok(shardRouter.gather(() -> withArchivedFields(null, null, start, finish, fields)));
+            }
+            List<ProgressResponse> progressResponse = shardRouter.gather(() ->
+                    withArchived(progressRepository.findByFinishDateBetween(start, finish),
+                            progressArchiveRepository.findByFinishDateBetween(start, finish)));
+            return listResponse(progressResponse, shape);
+        } catch (FieldProjection.UnknownFieldException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ErrorResponse("Erro interno no servidor!"));
@@ -173,7 +299,7 @@ public class ProgressController {
     @GetMapping("/count/status/{status}")
     public ResponseEntity<?> countByStatus(@PathVariable Progress.Status status) {
         try {
-            long count = progressRepository.countByStatus(status);
+            long count = globalCounters.progressCount(status);
             return ResponseEntity.ok(new MessageResponse("Total de progresso com status" + status + ": " + count));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -188,6 +314,11 @@ public class ProgressController {
             Optional<Progress> progressOpt = progressRepository.findFirstByActivityIdOrderByFinishDateDesc(activityId);
 
             if (progressOpt.isEmpty()) {
+                Optional<ProgressArchive> archivedOpt =
+                        progressArchiveRepository.findFirstByActivityIdOrderByFinishDateDesc(activityId);
+                if (archivedOpt.isPresent()) {
+                    return ResponseEntity.ok(withArchived(List.of(), List.of(archivedOpt.get())).get(0));
+                }
                 return ResponseEntity.ok(new ErrorResponse("Nenhum progresso encontrado para esta atividade"));
             }
 
@@ -200,19 +331,84 @@ public class ProgressController {
 
     //Progresso nos ultimos 30 dias
     @GetMapping("/user/{userId}/last30days")
-    public ResponseEntity<?> getProgressLast30Days(@PathVariable Long userId) {
+    public ResponseEntity<?> getProgressLast30Days(@PathVariable Long userId,
+                                                   @RequestParam(required = false) List<String> fields) {
         try{
             LocalDate initDate = LocalDate.now().minusDays(30);
-            List<Progress> progressList = progressRepository.findProgressLast30Days(userId, initDate);
+            if (fields != null && !fields.isEmpty()) {
+                return ResponseEntity.ok(progressRepository.findFields(userId, null, initDate, null, validFields(fields)));
+            }
+            List<Progress> progressList = progressUserColumn.isBackfilled()
+                    ? progressRepository.findProgressLast30Days(userId, initDate)
+                    : progressRepository.findProgressLast30DaysByActivityUser(userId, initDate);
 
             List<ProgressResponse> progressResponses = progressList.stream()
                     .map(ProgressResponse::new)
                     .toList();
 
             return ResponseEntity.ok(progressResponses);
+        }catch (FieldProjection.UnknownFieldException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
         }catch (Exception e ){
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ErrorResponse("Erro interno no servidor!"));
         }
     }
-}
+
+    private long countByUserAndStatus(Long userId, Progress.Status status) {
+        return progressUserColumn.isBackfilled()
+                ? progressRepository.countByUserAndStatus(userId, status)
+                : progressRepository.countByActivityUserAndStatus(userId, status);
+    }
+
+    // Junta o histórico recente com o arquivado, do mais novo para o mais antigo
+    private List<ProgressResponse> withArchived(List<Progress> recent, List<ProgressArchive> archived) {
+        List<ProgressResponse> responses = new ArrayList<>(recent.size() + archived.size());
+        recent.forEach(progress -> responses.add(new ProgressResponse(progress)));
+        if (archived.isEmpty()) {
+            return responses;
+        }
+
+        List<Long> activityIds = archived.stream().map(ProgressArchive::getActivityId).distinct().toList();
+        Map<Long, String> titles = activityRepository.findAllById(activityIds).stream()
+                .collect(Collectors.toMap(Activity::getId, Activity::getTitle));
+        archived.forEach(progress -> responses.add(new ProgressResponse(progress.getId(), progress.getFinishDate(),
+                progress.getStatus().toString(), progress.getActivityId(), titles.get(progress.getActivityId()))));
+
+        responses.sort(Comparator.comparing(ProgressResponse::finishDate).reversed());
+        return responses;
+    }
+
+    // withArchived para fields=: finishDate é lido sempre para ordenar a junção e removido se não foi pedido
+    private List<Map<String, Object>> withArchivedFields(Long userId, Long activityId, LocalDate from, LocalDate to,
+                                                         List<String> fields) {
+        List<String> selected = validFields(fields);
+        List<String> queryFields = new ArrayList<>(selected);
+        queryFields.add("finishDate");
+        boolean hideFinishDate = !selected.contains("finishDate");
+
+        List<Map<String, Object>> rows = new ArrayList<>(
+                progressRepository.findFields(userId, activityId, from, to, queryFields));
+        rows.addAll(progressArchiveRepository.findFields(userId, activityId, from, to, queryFields));
+
+        rows.sort(Comparator.comparing((Map<String, Object> row) -> (LocalDate) row.get("finishDate")).reversed());
+        if (hideFinishDate) {
+            rows.forEach(row -> row.remove("finishDate"));
+        }
+        return rows;
+    }
+
+    // fields= é validado aqui e não no repositório: lá dentro a exceção seria traduzida pelo
+    // proxy do Spring Data (InvalidDataAccessApiUsageException) e a resposta viraria 500
+    private static List<String> validFields(List<String> fields) {
+        return FieldProjection.normalize(fields, ProgressRepositoryCustom.FIELDS);
+    }
+
+    // shape=columnar devolve o formato colunar; qualquer outro valor mantém a lista de objetos
+    private ResponseEntity<?> listResponse(List<ProgressResponse> responses, String shape) {
+        if ("columnar".equalsIgnoreCase(shape)) {
+            return ResponseEntity.ok(ProgressColumnsResponse.of(responses));
+        }
+        return ResponseEntity.ok(responses);
+    }
+}
\ No newline at end of file
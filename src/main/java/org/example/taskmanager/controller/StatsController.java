@@ -0,0 +1,39 @@
+package org.example.taskmanager.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.taskmanager.entity.Activity;
+import org.example.taskmanager.entity.Progress;
+import org.example.taskmanager.service.GlobalCounters;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/stats")
+@RequiredArgsConstructor
+public class StatsController {
+
+    private final GlobalCounters globalCounters;
+
+    record GlobalStatsResponse(long users, long activeActivities, Map<String, Long> progressByStatus,
+                               Map<String, Long> progressByFrequency) {}
+
+    //Estatísticas globais servidas dos contadores em memória
+    @GetMapping("/global")
+    public ResponseEntity<?> getGlobalStats() {
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        for (Progress.Status status : Progress.Status.values()) {
+            byStatus.put(status.name(), globalCounters.progressCount(status));
+        }
+        Map<String, Long> byFrequency = new LinkedHashMap<>();
+        for (Activity.Frequency frequency : Activity.Frequency.values()) {
+            byFrequency.put(frequency.name(), globalCounters.progressCount(frequency));
+        }
+        return ResponseEntity.ok(new GlobalStatsResponse(globalCounters.userCount(),
+                globalCounters.activeActivityCount(), byStatus, byFrequency));
+    }
+}
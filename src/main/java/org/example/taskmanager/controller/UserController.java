@@ -1,15 +1,33 @@
 package org.example.taskmanager.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.example.taskmanager.datasource.ShardRouter;
+import org.example.taskmanager.event.ChangeType;
+import org.example.taskmanager.event.UserChangedEvent;
+import org.example.taskmanager.entity.Progress;
 import org.example.taskmanager.entity.User;
+import org.example.taskmanager.repository.ProgressArchiveRepository;
+import org.example.taskmanager.repository.ProgressRepository;
+import org.example.taskmanager.repository.ProgressUserColumn;
 import org.example.taskmanager.repository.UserRepository;
+import org.example.taskmanager.service.EmailDirectoryService;
+import org.example.taskmanager.service.EmailExistenceFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/user")
@@ -18,6 +36,16 @@ public class UserController {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ShardRouter shardRouter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EmailExistenceFilter emailExistenceFilter;
+    private final EmailDirectoryService emailDirectoryService;
+    private final ProgressRepository progressRepository;
+    private final ProgressArchiveRepository progressArchiveRepository;
+    private final ProgressUserColumn progressUserColumn;
+
+    @Value("${app.user-batch.max-size:100}")
+    private int maxBatchSize;
 
     // --- DTOs (Data Transfer Objects) ---
     record UpdateProfileRequest(String name, String email, LocalDate birthDate) {}
@@ -35,6 +63,16 @@ public class UserController {
                     totalActivities, activeActivities);
         }
     }
+    // Perfil com contagens de atividades e estatísticas de progresso, para painéis com vários usuários
+    record UserSummaryResponse(Long id, String name, String email, LocalDate birthDate, String creationDate,
+                               long totalActivities, long activeActivities, long totalFinished, long totalStarted,
+                               double completionRate) {
+        public UserSummaryResponse(User user, long totalActivities, long activeActivities, long totalFinished,
+                                   long totalStarted, double completionRate) {
+            this(user.getId(), user.getName(), user.getEmail(), user.getBirthDate(), user.getCreationDate().toString(),
+                    totalActivities, activeActivities, totalFinished, totalStarted, completionRate);
+        }
+    }
     record ErrorResponse(String error) {}
     record MessageResponse(String message) {}
 
@@ -61,6 +99,66 @@ public class UserController {
         return ResponseEntity.ok(new UserWithActivitiesResponse(userOpt.get(), totalActivities, activeActivities));
     }
 
+    // Resumo de vários usuários: mapa por id, na ordem pedida; ids inexistentes ficam de fora.
+    // Quatro consultas agrupadas por shard, qualquer que seja o número de ids.
+    @GetMapping("/batch")
+    public ResponseEntity<?> getBatchSummary(@RequestParam List<Long> ids) {
+        List<Long> userIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (userIds.isEmpty() || userIds.size() > maxBatchSize) {
+            return ResponseEntity.badRequest()
+                    .body(new ErrorResponse("Informe de 1 a " + maxBatchSize + " ids de usuário"));
+        }
+
+        try {
+            Map<Long, UserSummaryResponse> summaries = new HashMap<>();
+            userIds.stream().collect(Collectors.groupingBy(shardRouter::shardFor))
+                    .forEach((shard, shardIds) -> shardRouter.onShard(shard, () -> {
+                        summarize(shardIds, summaries);
+                        return null;
+                    }));
+
+            Map<Long, UserSummaryResponse> response = new LinkedHashMap<>();
+            userIds.stream().filter(summaries::containsKey).forEach(id -> response.put(id, summaries.get(id)));
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ErrorResponse("Erro interno no servidor!"));
+        }
+    }
+
+    private void summarize(List<Long> userIds, Map<Long, UserSummaryResponse> summaries) {
+        Map<Long, long[]> activities = new HashMap<>();
+        for (Object[] row : userRepository.countActivitiesGroupByUserId(userIds)) {
+            activities.put((Long) row[0], new long[]{((Number) row[1]).longValue(), ((Number) row[2]).longValue()});
+        }
+
+        // Progresso recente e arquivado, como em /api/progress/user/{userId}/stats
+        Map<Long, Map<Progress.Status, Long>> progress = new HashMap<>();
+        List<Object[]> recent = progressUserColumn.isBackfilled()
+                ? progressRepository.countGroupByUserIdAndStatus(userIds)
+                : progressRepository.countGroupByActivityUserIdAndStatus(userIds);
+        for (List<Object[]> rows : List.of(recent,
+                progressArchiveRepository.countGroupByUserIdAndStatus(userIds))) {
+            for (Object[] row : rows) {
+                progress.computeIfAbsent((Long) row[0], id -> new EnumMap<>(Progress.Status.class))
+                        .merge((Progress.Status) row[1], (Long) row[2], Long::sum);
+            }
+        }
+
+        for (User user : userRepository.findAllById(userIds)) {
+            long[] activityCounts = activities.getOrDefault(user.getId(), new long[2]);
+            Map<Progress.Status, Long> statuses = progress.getOrDefault(user.getId(), Map.of());
+            long totalFinished = statuses.getOrDefault(Progress.Status.FINISHED, 0L);
+            long totalStarted = statuses.getOrDefault(Progress.Status.STARTED, 0L);
+
+            double completionRate = (totalStarted + totalFinished) > 0 ?
+                    (double) totalFinished / (totalStarted + totalFinished) * 100 : 0;
+
+            summaries.put(user.getId(), new UserSummaryResponse(user, activityCounts[0], activityCounts[1],
+                    totalFinished, totalStarted, Math.round(completionRate * 100) / 100.0));
+        }
+    }
+
     // Atualizar perfil
     @PutMapping("/{userId}/profile")
     public ResponseEntity<?> updateProfile(@PathVariable Long userId, @RequestBody UpdateProfileRequest request) {
@@ -77,20 +175,45 @@ public class UserController {
         }
 
         // Atualiza o email se fornecido e verifica se o NOVO email já está em uso
+        String previousEmail = user.getEmail();
+        String claimedEmail = null;
         if (request.email() != null && !request.email().trim().isEmpty()) {
+            String newEmail = request.email().trim();
             // BUG CORRIGIDO AQUI: Verifica se o NOVO email já existe e não pertence ao usuário atual
-            if (!request.email().equalsIgnoreCase(user.getEmail()) && userRepository.existsByEmail(request.email())) {
-                return ResponseEntity.status(HttpStatus.CONFLICT)
-                        .body(new ErrorResponse("Este e-mail já está sendo usado por outro usuário!"));
+            if (!newEmail.equalsIgnoreCase(previousEmail)) {
+                // Reserva global primeiro, para que dois usuários em shards diferentes não peguem o mesmo e-mail
+                if (!emailDirectoryService.claim(newEmail)) {
+                    return ResponseEntity.status(HttpStatus.CONFLICT)
+                            .body(new ErrorResponse("Este e-mail já está sendo usado por outro usuário!"));
+                }
+                claimedEmail = newEmail;
+                if (emailExistenceFilter.exists(newEmail)) {
+                    emailDirectoryService.release(newEmail);
+                    return ResponseEntity.status(HttpStatus.CONFLICT)
+                            .body(new ErrorResponse("Este e-mail já está sendo usado por outro usuário!"));
+                }
             }
-            user.setEmail(request.email().trim());
+            user.setEmail(newEmail);
         }
 
         // Atualiza a data de nascimento se fornecida
         if (request.birthDate() != null) {
             user.setBirthDate(request.birthDate());
         }
-        User updatedUser = userRepository.save(user);
+        User updatedUser;
+        try {
+            updatedUser = userRepository.save(user);
+        } catch (RuntimeException e) {
+            if (claimedEmail != null) {
+                emailDirectoryService.release(claimedEmail);
+            }
+            throw e;
+        }
+        if (claimedEmail != null) {
+            emailDirectoryService.assign(claimedEmail, updatedUser.getId());
+            emailDirectoryService.release(previousEmail);
+        }
+        eventPublisher.publishEvent(new UserChangedEvent(ChangeType.UPDATED, updatedUser.getId(), updatedUser.getEmail()));
 
         return ResponseEntity.ok(new UserResponse(updatedUser));
     }
@@ -123,14 +246,14 @@ public class UserController {
     // Verificar se um email já existe
     @GetMapping("/check-email/{email}")
     public ResponseEntity<?> checkEmail(@PathVariable String email) {
-        boolean exists = userRepository.existsByEmail(email);
+        boolean exists = emailExistenceFilter.exists(email);
         return ResponseEntity.ok(new MessageResponse(exists ? "E-mail já existe!" : "E-mail disponível!"));
     }
 
     // Buscar usuário por email
     @GetMapping("/email/{email}")
     public ResponseEntity<?> getUserByEmail(@PathVariable String email) {
-        Optional<User> userOpt = userRepository.findByEmail(email);
+        Optional<User> userOpt = shardRouter.findFirst(() -> userRepository.findByEmail(email));
         if (userOpt.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorResponse("Usuário não encontrado!"));
         }
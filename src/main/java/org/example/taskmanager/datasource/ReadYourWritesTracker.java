@@ -0,0 +1,31 @@
+package org.example.taskmanager.datasource;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Mantém o usuário no primário por uma janela após a própria escrita (read-your-writes)
+public class ReadYourWritesTracker {
+
+    private final Map<Long, Long> lastWrites = new ConcurrentHashMap<>();
+    private final long windowMillis;
+
+    public ReadYourWritesTracker(Duration window) {
+        this.windowMillis = window.toMillis();
+    }
+
+    public void recordWrite(Long userId) {
+        lastWrites.put(userId, System.currentTimeMillis());
+    }
+
+    public boolean isSticky(Long userId) {
+        Long lastWrite = lastWrites.get(userId);
+        return lastWrite != null && System.currentTimeMillis() - lastWrite < windowMillis;
+    }
+
+    // Remove entradas vencidas para o mapa não crescer indefinidamente
+    public void purgeExpired() {
+        long limit = System.currentTimeMillis() - windowMillis;
+        lastWrites.values().removeIf(lastWrite -> lastWrite < limit);
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.taskmanager.datasource;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Conjunto de réplicas com estado de saúde e atraso de replicação
+@Slf4j
+public class ReplicaPool {
+
+    private final List<Replica> replicas;
+    private final Duration maxLag;
+    private final String lagQuery;
+    private final String lagColumn;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaPool(List<Replica> replicas, Duration maxLag, String lagQuery, String lagColumn) {
+        this.replicas = List.copyOf(replicas);
+        this.maxLag = maxLag;
+        this.lagQuery = lagQuery;
+        this.lagColumn = lagColumn;
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    // Round-robin entre as réplicas saudáveis; vazio quando nenhuma pode atender
+    public Optional<String> nextHealthyKey() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.isHealthy()) {
+                return Optional.of(replica.getKey());
+            }
+        }
+        return Optional.empty();
+    }
+
+    // Verifica conexão e atraso de cada réplica; réplicas atrasadas saem do rodízio
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.getDataSource().getConnection()) {
+                long lagSeconds = readLagSeconds(connection);
+                replica.update(lagSeconds <= maxLag.toSeconds(), lagSeconds);
+            } catch (Exception e) {
+                log.warn("Réplica {} indisponível: {}", replica.getKey(), e.getMessage());
+                replica.update(false, -1);
+            }
+        }
+    }
+
+    private long readLagSeconds(Connection connection) throws Exception {
+        if (lagQuery == null || lagQuery.isBlank()) {
+            if (!connection.isValid(2)) {
+                throw new IllegalStateException("Conexão inválida");
+            }
+            return 0;
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(lagQuery)) {
+            if (!rs.next()) {
+                throw new IllegalStateException("Réplica sem status de replicação");
+            }
+            long lag = rs.getLong(lagColumn);
+            // Seconds_Behind_Source NULL significa replicação parada
+            if (rs.wasNull()) {
+                throw new IllegalStateException("Replicação parada");
+            }
+            return lag;
+        }
+    }
+
+    @Getter
+    public static class Replica {
+        private final String key;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+        private volatile long lagSeconds;
+
+        public Replica(String key, DataSource dataSource) {
+            this.key = key;
+            this.dataSource = dataSource;
+        }
+
+        void update(boolean healthy, long lagSeconds) {
+            this.healthy = healthy;
+            this.lagSeconds = lagSeconds;
+        }
+    }
+}
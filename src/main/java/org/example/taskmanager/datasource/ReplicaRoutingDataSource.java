@@ -0,0 +1,50 @@
+package org.example.taskmanager.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+// Envia transações readOnly para as réplicas e todo o resto para o primário.
+// Deve ficar atrás de um LazyConnectionDataSourceProxy para que a flag readOnly
+// já esteja definida quando a conexão for de fato obtida.
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private final ReplicaPool replicaPool;
+    private final ReadYourWritesTracker tracker;
+
+    public ReplicaRoutingDataSource(DataSource primary, ReplicaPool replicaPool, ReadYourWritesTracker tracker) {
+        this.replicaPool = replicaPool;
+        this.tracker = tracker;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicaPool.getReplicas().forEach(replica -> targets.put(replica.getKey(), replica.getDataSource()));
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Long userId = UserRoutingContext.get();
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (userId != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+                tracker.recordWrite(userId);
+            }
+            return PRIMARY;
+        }
+
+        // Após uma escrita do próprio usuário, lê do primário até a réplica alcançar
+        if (userId != null && tracker.isSticky(userId)) {
+            return PRIMARY;
+        }
+
+        return replicaPool.nextHealthyKey().orElse(PRIMARY);
+    }
+}
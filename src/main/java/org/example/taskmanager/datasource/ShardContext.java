@@ -0,0 +1,26 @@
+package org.example.taskmanager.datasource;
+
+// Shard usado pelas conexões abertas na thread atual
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT_SHARD = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static void set(Integer shard) {
+        if (shard == null) {
+            CURRENT_SHARD.remove();
+        } else {
+            CURRENT_SHARD.set(shard);
+        }
+    }
+
+    public static Integer get() {
+        return CURRENT_SHARD.get();
+    }
+
+    public static void clear() {
+        CURRENT_SHARD.remove();
+    }
+}
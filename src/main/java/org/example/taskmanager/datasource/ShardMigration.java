@@ -0,0 +1,124 @@
+package org.example.taskmanager.datasource;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.taskmanager.config.ShardingProperties;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnNotWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+
+// Migração de um banco único para N shards (MySQL), executada como comando com o perfil
+// shard-migration: sem servidor web, nenhuma requisição é atendida durante a migração.
+// 1. cria nos shards 1..N-1 as tabelas que só existem no shard 0 (o ddl-auto só alcança o shard 0);
+// 2. calcula o maior id já gerado no shard 0 (ids legados, que não seguem o esquema de offset);
+// 3. leva o AUTO_INCREMENT de todas as tabelas de todos os shards para acima desse id.
+// Na primeira execução o comando falha pedindo app.sharding.legacy-max-id; com o valor definido,
+// execuções seguintes só reaplicam os passos 1 e 3. Ao fim da subida, a aplicação é encerrada.
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.sharding.migration", name = "enabled", havingValue = "true")
+@ConditionalOnNotWebApplication
+public class ShardMigration implements ApplicationRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
+    private final ShardingProperties properties;
+    private final ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<String> tables = shardRouter.onShard(0, () -> jdbcTemplate.queryForList(
+                "SELECT table_name FROM information_schema.tables WHERE table_schema = DATABASE() " +
+                        "AND table_type = 'BASE TABLE'", String.class));
+        for (int shard = 1; shard < shardRouter.getShardCount(); shard++) {
+            int target = shard;
+            shardRouter.onShard(shard, () -> createMissingTables(target, tables));
+        }
+
+        long legacyMaxId = properties.getLegacyMaxId() != null
+                ? properties.getLegacyMaxId()
+                : shardRouter.onShard(0, this::maxId);
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            shardRouter.onShard(shard, () -> raiseAutoIncrement(legacyMaxId + 1));
+        }
+
+        if (properties.getLegacyMaxId() == null) {
+            throw new IllegalStateException("Migração de sharding: defina app.sharding.legacy-max-id=" + legacyMaxId +
+                    " e suba a aplicação sem o perfil shard-migration");
+        }
+        log.info("Migração de sharding concluída: {} shards, ids legados até {}", shardRouter.getShardCount(),
+                legacyMaxId);
+    }
+
+    // Encerra o comando depois do resto da subida (demais runners e listeners), que já encontra as tabelas
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void exitWhenDone() {
+        System.exit(SpringApplication.exit(context));
+    }
+
+    private Void createMissingTables(int shard, List<String> tables) {
+        List<String> existing = jdbcTemplate.queryForList("SELECT table_name FROM information_schema.tables " +
+                "WHERE table_schema = DATABASE()", String.class);
+        List<String> missing = tables.stream().filter(table -> !existing.contains(table)).toList();
+        if (missing.isEmpty()) {
+            return null;
+        }
+
+        List<String> ddl = shardRouter.onShard(0, () -> missing.stream()
+                .map(table -> jdbcTemplate.queryForMap("SHOW CREATE TABLE `" + table + "`"))
+                .map(row -> (String) row.get("Create Table"))
+                .toList());
+        // Mesma conexão para que FOREIGN_KEY_CHECKS=0 valha para todos os CREATE TABLE, em qualquer ordem
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET FOREIGN_KEY_CHECKS = 0");
+                for (String create : ddl) {
+                    statement.execute(create);
+                }
+                statement.execute("SET FOREIGN_KEY_CHECKS = 1");
+            }
+            return null;
+        });
+        log.info("Tabelas criadas no shard {}: {}", shard, missing);
+        return null;
+    }
+
+    private long maxId() {
+        long max = 0;
+        for (Map<String, Object> column : autoIncrementColumns()) {
+            Long value = jdbcTemplate.queryForObject("SELECT MAX(`" + column.get("column_name") + "`) FROM `" +
+                    column.get("table_name") + "`", Long.class);
+            max = Math.max(max, value == null ? 0 : value);
+        }
+        return max;
+    }
+
+    private Void raiseAutoIncrement(long next) {
+        for (Map<String, Object> column : autoIncrementColumns()) {
+            jdbcTemplate.execute("ALTER TABLE `" + column.get("table_name") + "` AUTO_INCREMENT = " + next);
+        }
+        return null;
+    }
+
+    private List<Map<String, Object>> autoIncrementColumns() {
+        return jdbcTemplate.queryForList("SELECT table_name AS table_name, column_name AS column_name " +
+                "FROM information_schema.columns WHERE table_schema = DATABASE() AND extra LIKE '%auto_increment%'");
+    }
+}
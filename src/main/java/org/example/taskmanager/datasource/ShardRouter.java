@@ -0,0 +1,124 @@
+package org.example.taskmanager.datasource;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+// Cada shard i gera ids com auto_increment_offset = i + 1 e auto_increment_increment = N,
+// então qualquer id (usuário, atividade ou progresso) indica o shard onde a linha mora.
+// Ids até legacyMaxId foram gerados antes do sharding e moram no shard 0 (ver ShardMigration).
+// Com um único shard todos os métodos apenas executam a consulta uma vez.
+//
+// O shard só é consultado quando a conexão física é obtida, e o Hibernate segura essa conexão
+// até o fim da transação (ou do EntityManager). Por isso cada chamada em um shard roda numa
+// transação nova (REQUIRES_NEW), com EntityManager e conexão próprios: reaproveitar a transação
+// de quem chamou leria sempre o primeiro shard usado. Quem precisa de uma transação por lote
+// chama onShard uma vez por lote.
+public class ShardRouter {
+
+    private final int shardCount;
+    private final long legacyMaxId;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicInteger nextNewShard = new AtomicInteger();
+
+    // Sem gerenciador de transações a consulta roda direto (testes sem banco)
+    public ShardRouter(int shardCount) {
+        this(shardCount, 0, null);
+    }
+
+    public ShardRouter(int shardCount, long legacyMaxId) {
+        this(shardCount, legacyMaxId, null);
+    }
+
+    public ShardRouter(int shardCount, long legacyMaxId, PlatformTransactionManager transactionManager) {
+        this.shardCount = Math.max(shardCount, 1);
+        this.legacyMaxId = legacyMaxId;
+        if (transactionManager != null) {
+            this.transactionTemplate = new TransactionTemplate(transactionManager);
+            this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        } else {
+            this.transactionTemplate = null;
+        }
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public int shardFor(Long id) {
+        if (id <= legacyMaxId) {
+            return 0;
+        }
+        return (int) Math.floorMod(id - 1, (long) shardCount);
+    }
+
+    // Direciona as próximas consultas da requisição para o shard do id
+    public void route(Long id) {
+        if (id != null) {
+            ShardContext.set(shardFor(id));
+        }
+    }
+
+    // Escolhe o shard de um novo usuário (round-robin)
+    public void routeNewUser() {
+        ShardContext.set(Math.floorMod(nextNewShard.getAndIncrement(), shardCount));
+    }
+
+    public <T> T onShard(int shard, Supplier<T> query) {
+        Integer previous = ShardContext.get();
+        ShardContext.set(shard);
+        try {
+            return transactionTemplate == null ? query.get() : transactionTemplate.execute(status -> query.get());
+        } finally {
+            ShardContext.set(previous);
+        }
+    }
+
+    // Scatter-gather: executa em todos os shards e concatena os resultados.
+    // O mapeamento para DTO deve acontecer dentro da consulta, enquanto a transação
+    // do shard está aberta, para que lazy loads usem a conexão certa.
+    public <T> List<T> gather(Supplier<List<T>> query) {
+        List<T> results = new ArrayList<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            results.addAll(onShard(shard, query));
+        }
+        return results;
+    }
+
+    public long sum(LongSupplier query) {
+        long total = 0;
+        for (int shard = 0; shard < shardCount; shard++) {
+            total += onShard(shard, query::getAsLong);
+        }
+        return total;
+    }
+
+    public boolean anyMatch(BooleanSupplier query) {
+        for (int shard = 0; shard < shardCount; shard++) {
+            if (onShard(shard, query::getAsBoolean)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Retorna o primeiro resultado encontrado e deixa a requisição no shard dele
+    public <T> Optional<T> findFirst(Supplier<Optional<T>> query) {
+        for (int shard = 0; shard < shardCount; shard++) {
+            Optional<T> result = onShard(shard, query);
+            if (result.isPresent()) {
+                ShardContext.set(shard);
+                return result;
+            }
+        }
+        return Optional.empty();
+    }
+}
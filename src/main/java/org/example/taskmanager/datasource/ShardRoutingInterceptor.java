@@ -0,0 +1,57 @@
+package org.example.taskmanager.datasource;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+import java.util.Map;
+
+// Seleciona o shard a partir do primeiro id encontrado nas variáveis de caminho
+public class ShardRoutingInterceptor implements AsyncHandlerInterceptor {
+
+    private static final List<String> ID_VARIABLES =
+            List.of("userId", "user_id", "activityId", "activity_id", "progressId");
+
+    private final ShardRouter shardRouter;
+
+    public ShardRoutingInterceptor(ShardRouter shardRouter) {
+        this.shardRouter = shardRouter;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        @SuppressWarnings("unchecked")
+        Map<String, String> variables = (Map<String, String>) request
+                .getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+
+        if (variables != null) {
+            for (String name : ID_VARIABLES) {
+                String value = variables.get(name);
+                if (value != null) {
+                    try {
+                        shardRouter.route(Long.valueOf(value));
+                    } catch (NumberFormatException ignored) {
+                        // id inválido: o próprio controller responde o erro
+                    }
+                    break;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        ShardContext.clear();
+    }
+
+    // Requisições assíncronas (SSE) liberam a thread sem passar por afterCompletion
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        ShardContext.clear();
+    }
+}
@@ -0,0 +1,22 @@
+package org.example.taskmanager.datasource;
+
+// Guarda o usuário da requisição atual para decidir o roteamento das conexões
+public final class UserRoutingContext {
+
+    private static final ThreadLocal<Long> CURRENT_USER = new ThreadLocal<>();
+
+    private UserRoutingContext() {
+    }
+
+    public static void set(Long userId) {
+        CURRENT_USER.set(userId);
+    }
+
+    public static Long get() {
+        return CURRENT_USER.get();
+    }
+
+    public static void clear() {
+        CURRENT_USER.remove();
+    }
+}
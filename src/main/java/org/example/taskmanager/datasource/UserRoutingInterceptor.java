@@ -0,0 +1,44 @@
+package org.example.taskmanager.datasource;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+// Extrai o id do usuário das variáveis de caminho ({userId} ou {user_id})
+public class UserRoutingInterceptor implements AsyncHandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        @SuppressWarnings("unchecked")
+        Map<String, String> variables = (Map<String, String>) request
+                .getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+
+        if (variables != null) {
+            String userId = variables.getOrDefault("userId", variables.get("user_id"));
+            if (userId != null) {
+                try {
+                    UserRoutingContext.set(Long.valueOf(userId));
+                } catch (NumberFormatException ignored) {
+                    // id inválido: o próprio controller responde o erro
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        UserRoutingContext.clear();
+    }
+
+    // Requisições assíncronas (SSE) liberam a thread sem passar por afterCompletion
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        UserRoutingContext.clear();
+    }
+}
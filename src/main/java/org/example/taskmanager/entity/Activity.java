@@ -12,7 +12,10 @@ import java.util.List;
 @ToString
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "activity")
+@Table(name = "activity", indexes = {
+        @Index(name = "idx_activity_user_next_due", columnList = "user_id, next_due_date"),
+        @Index(name = "idx_activity_next_due", columnList = "next_due_date, activity_id")
+})
 public class Activity {
     @Id
     @Column(name = "activity_id")
@@ -35,6 +38,10 @@ public class Activity {
     @Column(name = "active",nullable = false)
     private Boolean active;
 
+    // Próxima data em que a atividade deve ser feita, mantida pelo DueDateService
+    @Column(name = "next_due_date")
+    private LocalDate nextDueDate;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id",nullable = false,foreignKey = @ForeignKey(name = "fk_activity_user"))
     @ToString.Exclude
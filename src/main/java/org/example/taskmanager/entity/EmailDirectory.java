@@ -0,0 +1,29 @@
+package org.example.taskmanager.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+// Diretório global de e-mails, sempre no shard 0. A chave primária garante um único dono por e-mail
+// mesmo com usuários espalhados em vários shards; user_id nulo é uma reserva ainda não confirmada.
+@Entity
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "email_directory", indexes = {
+        @Index(name = "idx_email_directory_claimed_at", columnList = "claimed_at")
+})
+public class EmailDirectory {
+    @Id
+    @Column(name = "email", length = 100)
+    private String email;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "claimed_at", nullable = false)
+    private Instant claimedAt;
+}
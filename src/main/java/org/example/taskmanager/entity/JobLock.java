@@ -0,0 +1,27 @@
+package org.example.taskmanager.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+// Trava de jobs agendados entre instâncias, sempre no shard 0. Quem grava locked_until no
+// futuro é o dono até lá; uma trava vencida (instância que caiu) pode ser retomada por outra.
+@Entity
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "job_lock")
+public class JobLock {
+    @Id
+    @Column(name = "name", length = 64)
+    private String name;
+
+    @Column(name = "locked_until", nullable = false)
+    private Instant lockedUntil;
+
+    @Column(name = "locked_by", nullable = false, length = 100)
+    private String lockedBy;
+}
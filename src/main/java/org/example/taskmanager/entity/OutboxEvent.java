@@ -0,0 +1,45 @@
+package org.example.taskmanager.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+// Evento de domínio gravado na mesma transação da alteração que o gerou; o OutboxRelay
+// entrega e remove. lane = userId % app.outbox.lanes agrupa os eventos de cada usuário.
+@Entity
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "outbox_event", indexes = {
+        @Index(name = "idx_outbox_event_lane_id", columnList = "lane, outbox_event_id")
+})
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "outbox_event_id")
+    private Long id;
+
+    @Column(name = "lane", nullable = false)
+    private Integer lane;
+
+    @Column(name = "aggregate_type", nullable = false, length = 20)
+    private String aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    @Column(name = "event_type", nullable = false, length = 20)
+    private String eventType;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "payload", nullable = false, length = 1000)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
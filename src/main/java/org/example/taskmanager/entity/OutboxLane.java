@@ -0,0 +1,25 @@
+package org.example.taskmanager.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+// Uma linha por lane do outbox. A instância que trava a linha (FOR UPDATE SKIP LOCKED)
+// é a única entregando os eventos daquela lane, o que mantém a ordem por usuário.
+// polled_at registra o último atendimento, só para diagnóstico.
+@Entity
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "outbox_lane")
+public class OutboxLane {
+    @Id
+    @Column(name = "lane")
+    private Integer id;
+
+    @Column(name = "polled_at")
+    private Instant polledAt;
+}
@@ -12,7 +12,9 @@ import java.time.LocalDate;
 @ToString
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "progress")
+@Table(name = "progress", indexes = {
+        @Index(name = "idx_progress_user_finish_date", columnList = "user_id, finish_date")
+})
 public class Progress {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -31,6 +33,17 @@ public class Progress {
     @ToString.Exclude
     private Activity activity;
 
+    // Copia do dono da atividade para consultas por usuario sem join com activity
+    @Column(name = "user_id")
+    private Long userId;
+
+    @PrePersist
+    public void onCreate() {
+        if (this.userId == null && this.activity != null && this.activity.getUser() != null) {
+            this.userId = this.activity.getUser().getId();
+        }
+    }
+
     public enum Status{
         STARTED("started"),
         FINISHED("finished");
@@ -0,0 +1,37 @@
+package org.example.taskmanager.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+// Progresso antigo movido de "progress" pelo ProgressArchiveJob. Mantém o id original
+// e referencia atividade/usuário só pelo id, sem chave estrangeira.
+@Entity
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "progress_archive", indexes = {
+        @Index(name = "idx_progress_archive_user_finish_date", columnList = "user_id, finish_date"),
+        @Index(name = "idx_progress_archive_activity_finish_date", columnList = "activity_id, finish_date")
+})
+public class ProgressArchive {
+    @Id
+    @Column(name = "progress_id")
+    private Long id;
+
+    @Column(name = "finish_date", nullable = false)
+    private LocalDate finishDate;
+
+    @Column(name = "status", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Progress.Status status;
+
+    @Column(name = "activity_id", nullable = false)
+    private Long activityId;
+
+    @Column(name = "user_id")
+    private Long userId;
+}
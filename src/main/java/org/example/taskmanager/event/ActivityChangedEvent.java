@@ -0,0 +1,6 @@
+package org.example.taskmanager.event;
+
+// Publicado pelo ActivityController depois de criar, alterar ou desativar uma atividade
+public record ActivityChangedEvent(ChangeType type, Long userId, Long activityId, boolean wasActive,
+                                   boolean active) {
+}
@@ -0,0 +1,200 @@
+package org.example.taskmanager.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Conexões SSE por usuário. Cada conexão tem uma fila limitada; quem não consome
+// rápido o suficiente e enche a fila é desconectado (o cliente reconecta e recarrega).
+// O envio de cada conexão roda na sua própria tarefa (no máximo uma por conexão), em um pool
+// fixo de app.events.sender-threads: conexões ociosas não ocupam thread, só os envios em
+// andamento. Um cliente meio-aberto que trava em send() prende uma thread até o timeout de
+// escrita do Tomcat (server.tomcat.connection-timeout) e deixa de receber eventos no heartbeat
+// seguinte (app.events.send-timeout); o pool precisa cobrir os envios travados nessa janela.
+@Slf4j
+@Component
+public class ChangeStream {
+
+    private final Map<Long, Set<Connection>> connections = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final ThreadPoolExecutor sender;
+    private final Counter evicted;
+    private final int queueCapacity;
+    private final int maxConnectionsPerUser;
+    private final Duration timeout;
+    private final Duration sendTimeout;
+
+    public ChangeStream(MeterRegistry meterRegistry,
+                        @Value("${app.events.queue-capacity:32}") int queueCapacity,
+                        @Value("${app.events.max-connections-per-user:5}") int maxConnectionsPerUser,
+                        @Value("${app.events.timeout:30m}") Duration timeout,
+                        @Value("${app.events.send-timeout:10s}") Duration sendTimeout,
+                        @Value("${app.events.sender-threads:64}") int senderThreads) {
+        this.queueCapacity = queueCapacity;
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+        this.timeout = timeout;
+        this.sendTimeout = sendTimeout;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.sender = new ThreadPoolExecutor(senderThreads, senderThreads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "sse-sender-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.evicted = meterRegistry.counter("events.evicted");
+        Gauge.builder("events.connections", connectionCount, AtomicInteger::get).register(meterRegistry);
+        // Envios esperando thread livre: cresce quando o pool está tomado por envios travados
+        Gauge.builder("events.sender.queued", sender, executor -> executor.getQueue().size()).register(meterRegistry);
+    }
+
+    // Retorna vazio quando o usuário já atingiu o limite de conexões
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Connection connection = new Connection(userId, emitter, new ArrayBlockingQueue<>(queueCapacity));
+
+        // Limite e inclusão no mesmo compute: um remove() concorrente não descarta o conjunto
+        // entre a leitura e o add, deixando a conexão nova fora do mapa
+        AtomicBoolean added = new AtomicBoolean();
+        connections.compute(userId, (id, set) -> {
+            Set<Connection> userConnections = set != null ? set : ConcurrentHashMap.newKeySet();
+            if (userConnections.size() < maxConnectionsPerUser) {
+                added.set(userConnections.add(connection));
+            }
+            return userConnections.isEmpty() ? null : userConnections;
+        });
+        if (!added.get()) {
+            return null;
+        }
+        connectionCount.incrementAndGet();
+
+        emitter.onCompletion(() -> remove(connection));
+        emitter.onTimeout(() -> remove(connection));
+        emitter.onError(e -> remove(connection));
+
+        enqueue(connection, SseEmitter.event().comment("connected"));
+        return emitter;
+    }
+
+    // Disparado após o commit (ou imediatamente quando não há transação)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onActivityChanged(ActivityChangedEvent event) {
+        publish(event.userId(), "activity", event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProgressChanged(ProgressChangedEvent event) {
+        publish(event.userId(), "progress", event);
+    }
+
+    @Scheduled(fixedDelayString = "${app.events.heartbeat-interval:15000}")
+    public void heartbeat() {
+        long stuckSince = System.nanoTime() - sendTimeout.toNanos();
+        connections.values().forEach(userConnections -> userConnections.forEach(connection -> {
+            long sendingSince = connection.sendingSince.get();
+            if (sendingSince != 0 && sendingSince - stuckSince < 0) {
+                // send() parado há mais que o limite: para de enfileirar; a thread presa é
+                // liberada quando o socket ou o timeout assíncrono falharem
+                log.debug("Conexão SSE travada do usuário {} removida", connection.userId);
+                evicted.increment();
+                remove(connection);
+                return;
+            }
+            enqueue(connection, SseEmitter.event().comment("heartbeat"));
+        }));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+    }
+
+    private void publish(Long userId, String name, Object data) {
+        if (userId == null) {
+            return;
+        }
+        Set<Connection> userConnections = connections.get(userId);
+        if (userConnections != null) {
+            userConnections.forEach(connection -> enqueue(connection, SseEmitter.event().name(name).data(data)));
+        }
+    }
+
+    private void enqueue(Connection connection, SseEmitter.SseEventBuilder event) {
+        if (!connection.queue.offer(event)) {
+            log.debug("Conexão SSE lenta do usuário {} removida", connection.userId);
+            evicted.increment();
+            remove(connection);
+            // complete() espera um send() em andamento; fora da thread de quem publica
+            sender.execute(connection.emitter::complete);
+            return;
+        }
+        if (connection.draining.compareAndSet(false, true)) {
+            sender.execute(() -> drain(connection));
+        }
+    }
+
+    private void drain(Connection connection) {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while ((event = connection.queue.poll()) != null) {
+                connection.sendingSince.set(System.nanoTime());
+                connection.emitter.send(event);
+                connection.sendingSince.set(0);
+            }
+        } catch (Exception e) {
+            remove(connection);
+            connection.emitter.completeWithError(e);
+        } finally {
+            connection.draining.set(false);
+            if (!connection.queue.isEmpty() && connection.draining.compareAndSet(false, true)) {
+                sender.execute(() -> drain(connection));
+            }
+        }
+    }
+
+    private void remove(Connection connection) {
+        AtomicBoolean removed = new AtomicBoolean();
+        connections.computeIfPresent(connection.userId, (id, set) -> {
+            removed.set(set.remove(connection));
+            return set.isEmpty() ? null : set;
+        });
+        if (removed.get()) {
+            connectionCount.decrementAndGet();
+            connection.queue.clear();
+        }
+    }
+
+    private static class Connection {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        // Início do send() em andamento (System.nanoTime), 0 quando nenhum
+        private final AtomicLong sendingSince = new AtomicLong();
+
+        Connection(Long userId, SseEmitter emitter, BlockingQueue<SseEmitter.SseEventBuilder> queue) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+    }
+}
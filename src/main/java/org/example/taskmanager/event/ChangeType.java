@@ -0,0 +1,7 @@
+package org.example.taskmanager.event;
+
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
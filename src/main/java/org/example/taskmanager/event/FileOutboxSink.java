@@ -0,0 +1,52 @@
+package org.example.taskmanager.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.taskmanager.entity.OutboxEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Anexa cada evento como uma linha JSON em app.outbox.file; útil em testes e ambiente local
+@Primary
+@Component
+@ConditionalOnProperty(prefix = "app.outbox", name = "file")
+public class FileOutboxSink implements OutboxSink {
+
+    private final Path file;
+    private final ObjectMapper objectMapper;
+
+    public FileOutboxSink(@Value("${app.outbox.file}") Path file, ObjectMapper objectMapper) {
+        this.file = file;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> events) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (OutboxEvent event : events) {
+                Map<String, Object> line = new LinkedHashMap<>();
+                line.put("id", event.getId());
+                line.put("aggregateType", event.getAggregateType());
+                line.put("aggregateId", event.getAggregateId());
+                line.put("eventType", event.getEventType());
+                line.put("userId", event.getUserId());
+                line.put("createdAt", event.getCreatedAt());
+                line.put("payload", objectMapper.readTree(event.getPayload()));
+                writer.write(objectMapper.writeValueAsString(line));
+                writer.newLine();
+            }
+        }
+    }
+}
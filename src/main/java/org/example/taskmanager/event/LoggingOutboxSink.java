@@ -0,0 +1,21 @@
+package org.example.taskmanager.event;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.taskmanager.entity.OutboxEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Implementação padrão enquanto não há broker; outro destino entra como bean @Primary
+@Slf4j
+@Component
+public class LoggingOutboxSink implements OutboxSink {
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        for (OutboxEvent event : events) {
+            log.info("outbox {} {} {} user={} {}", event.getId(), event.getAggregateType(), event.getEventType(),
+                    event.getUserId(), event.getPayload());
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package org.example.taskmanager.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.example.taskmanager.datasource.ShardRouter;
+import org.example.taskmanager.entity.OutboxEvent;
+import org.example.taskmanager.entity.OutboxLane;
+import org.example.taskmanager.repository.OutboxEventRepository;
+import org.example.taskmanager.repository.OutboxLaneRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+// Entrega o outbox ao OutboxSink. Cada transação trava uma lane pela chave primária (SKIP LOCKED),
+// envia um lote dela em ordem e só então remove os eventos: várias instâncias dividem as lanes sem
+// coordenação, a ordem por usuário é mantida e uma falha antes do commit apenas reenvia o lote.
+// Cada ciclo começa numa lane diferente, para que as instâncias não disputem sempre as mesmas.
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxLaneRepository outboxLaneRepository;
+    private final OutboxSink sink;
+    private final ShardRouter shardRouter;
+    private final int lanes;
+    private final int batchSize;
+    private final Counter published;
+    private final Counter failures;
+    private final Timer publishTimer;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong oldestAgeMillis = new AtomicLong();
+    private final AtomicInteger nextLane;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, OutboxLaneRepository outboxLaneRepository,
+                       OutboxSink sink, ShardRouter shardRouter,
+                       MeterRegistry meterRegistry,
+                       @Value("${app.outbox.lanes:16}") int lanes,
+                       @Value("${app.outbox.batch-size:200}") int batchSize) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxLaneRepository = outboxLaneRepository;
+        this.sink = sink;
+        this.shardRouter = shardRouter;
+        this.lanes = lanes;
+        this.batchSize = batchSize;
+        this.nextLane = new AtomicInteger(ThreadLocalRandom.current().nextInt(lanes));
+        this.published = meterRegistry.counter("outbox.published");
+        this.failures = meterRegistry.counter("outbox.publish.failures");
+        this.publishTimer = meterRegistry.timer("outbox.publish");
+        Gauge.builder("outbox.pending", pending, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("outbox.lag.seconds", oldestAgeMillis, age -> age.get() / 1000.0).register(meterRegistry);
+    }
+
+    // Cria as lanes que faltam em cada shard; outra instância pode criar a mesma ao mesmo tempo,
+    // por isso cada lane é gravada na própria transação
+    @EventListener(ApplicationReadyEvent.class)
+    public void createLanes() {
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            Set<Integer> existing = shardRouter.onShard(shard, () -> outboxLaneRepository.findAll().stream()
+                    .map(OutboxLane::getId).collect(Collectors.toSet()));
+            for (int lane = 0; lane < lanes; lane++) {
+                if (!existing.contains(lane)) {
+                    OutboxLane created = new OutboxLane(lane, null);
+                    try {
+                        shardRouter.onShard(shard, () -> outboxLaneRepository.save(created));
+                    } catch (DataIntegrityViolationException e) {
+                        log.debug("Lane {} do outbox já criada por outra instância", lane);
+                    }
+                }
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval:1000}")
+    public void relay() {
+        long totalPending = 0;
+        Instant oldest = null;
+        int start = Math.floorMod(nextLane.getAndIncrement(), lanes);
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            OutboxEventRepository.Backlog backlog = shardRouter.onShard(shard, outboxEventRepository::findBacklog);
+            long shardPending = backlog.getPending();
+            if (shardPending > 0) {
+                shardPending -= drain(shard, start);
+            }
+            totalPending += Math.max(shardPending, 0);
+            // Idade do mais antigo no início do ciclo: com o lote enviado, é um limite superior
+            Instant shardOldest = backlog.getOldest();
+            if (shardPending > 0 && shardOldest != null && (oldest == null || shardOldest.isBefore(oldest))) {
+                oldest = shardOldest;
+            }
+        }
+        pending.set(totalPending);
+        oldestAgeMillis.set(oldest == null ? 0 : Duration.between(oldest, Instant.now()).toMillis());
+    }
+
+    // Atende no máximo uma vez cada lane por ciclo, uma transação por lane; para no primeiro erro do destino
+    private long drain(int shard, int start) {
+        long sent = 0;
+        for (int i = 0; i < lanes; i++) {
+            int lane = (start + i) % lanes;
+            Integer count;
+            try {
+                count = shardRouter.onShard(shard, () -> relayLane(lane));
+            } catch (Exception e) {
+                failures.increment();
+                log.warn("Falha ao entregar eventos do outbox; o lote será reenviado", e);
+                break;
+            }
+            sent += count == null ? 0 : count;
+        }
+        return sent;
+    }
+
+    // 0 quando a lane está com outra instância ou vazia
+    private Integer relayLane(int laneId) {
+        Optional<OutboxLane> locked = outboxLaneRepository.findUnlockedById(laneId);
+        if (locked.isEmpty()) {
+            return 0;
+        }
+        OutboxLane lane = locked.get();
+        lane.setPolledAt(Instant.now());
+
+        List<OutboxEvent> batch = outboxEventRepository.findByLaneOrderByIdAsc(lane.getId(),
+                PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        try {
+            publishTimer.recordCallable(() -> {
+                sink.publish(batch);
+                return null;
+            });
+        } catch (Exception e) {
+            throw new IllegalStateException("Destino do outbox recusou o lote da lane " + lane.getId(), e);
+        }
+        outboxEventRepository.deleteByIdIn(batch.stream().map(OutboxEvent::getId).toList());
+        published.increment(batch.size());
+        return batch.size();
+    }
+}
@@ -0,0 +1,14 @@
+package org.example.taskmanager.event;
+
+import org.example.taskmanager.entity.OutboxEvent;
+
+import java.util.List;
+
+// Destino dos eventos do outbox. Recebe um lote de uma única lane, em ordem; só retorna depois
+// que o destino confirmou o lote. Uma exceção faz o lote ser reenviado (entrega pelo menos uma vez),
+// então consumidores devem descartar duplicados pelo id. Um adaptador de broker (Kafka, RabbitMQ)
+// deve usar userId como chave de partição para preservar a ordem por usuário.
+public interface OutboxSink {
+
+    void publish(List<OutboxEvent> events) throws Exception;
+}
@@ -0,0 +1,58 @@
+package org.example.taskmanager.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.taskmanager.entity.OutboxEvent;
+import org.example.taskmanager.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+// Listener síncrono: grava o evento no outbox dentro da transação de quem publicou,
+// então o evento existe se e somente se a alteração foi confirmada
+@Component
+public class OutboxWriter {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final int lanes;
+
+    public OutboxWriter(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper,
+                        @Value("${app.outbox.lanes:16}") int lanes) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+        this.lanes = lanes;
+    }
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onProgressChanged(ProgressChangedEvent event) {
+        write("progress", event.progressId(), event.type(), event.userId(), event);
+    }
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onActivityChanged(ActivityChangedEvent event) {
+        write("activity", event.activityId(), event.type(), event.userId(), event);
+    }
+
+    private void write(String aggregateType, Long aggregateId, ChangeType type, Long userId, Object payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setLane((int) Math.floorMod(userId, (long) lanes));
+        event.setAggregateType(aggregateType);
+        event.setAggregateId(aggregateId);
+        event.setEventType(type.name());
+        event.setUserId(userId);
+        event.setCreatedAt(Instant.now());
+        try {
+            event.setPayload(objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Evento não serializável: " + payload, e);
+        }
+        outboxEventRepository.save(event);
+    }
+}
@@ -0,0 +1,11 @@
+package org.example.taskmanager.event;
+
+import org.example.taskmanager.entity.Activity;
+import org.example.taskmanager.entity.Progress;
+
+import java.time.LocalDate;
+
+// Publicado pelo ProgressController depois de registrar ou remover um progresso
+public record ProgressChangedEvent(ChangeType type, Long userId, Long progressId, Long activityId,
+                                   LocalDate finishDate, Progress.Status status, Activity.Frequency frequency) {
+}
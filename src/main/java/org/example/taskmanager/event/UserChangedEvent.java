@@ -0,0 +1,5 @@
+package org.example.taskmanager.event;
+
+// Publicado no cadastro e na atualização de perfil de um usuário
+public record UserChangedEvent(ChangeType type, Long userId, String email) {
+}
@@ -0,0 +1,21 @@
+package org.example.taskmanager.ratelimit;
+
+// Classes de endpoint com orçamentos separados de requisições
+public enum EndpointClass {
+    // BCrypt: caro em CPU
+    AUTH,
+    // Consultas que varrem dados de todos os usuários
+    EXPENSIVE,
+    DEFAULT;
+
+    public static EndpointClass of(String path) {
+        if (path.startsWith("/api/auth/")) {
+            return AUTH;
+        }
+        // /api/progress/count/ não entra: é respondido pelos contadores em memória (GlobalCounters)
+        if (path.startsWith("/api/progress/date-range")) {
+            return EXPENSIVE;
+        }
+        return DEFAULT;
+    }
+}
@@ -0,0 +1,89 @@
+package org.example.taskmanager.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Limite adaptativo de concorrência (gradiente): compara a latência recente com a
+// menor latência observada. Quando a latência sobe, o limite cai e o excesso é
+// rejeitado antes que as filas do Tomcat e do pool de conexões cresçam.
+public class GradientConcurrencyLimiter {
+
+    private static final int SAMPLES_PER_WINDOW = 50;
+    private static final int WINDOWS_PER_MIN_RTT_RESET = 600;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile int limit;
+    private double estimatedLimit;
+    private long minRttNanos;
+    private long windowRttSum;
+    private int windowSamples;
+    private int windowsSinceReset;
+
+    public GradientConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance,
+                                      double smoothing) {
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+    }
+
+    public boolean tryAcquire() {
+        if (inFlight.incrementAndGet() > limit) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    public void release(long rttNanos) {
+        inFlight.decrementAndGet();
+        sample(rttNanos);
+    }
+
+    // Libera sem amostrar latência (requisições assíncronas como SSE)
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public synchronized long getMinRttMillis() {
+        return minRttNanos / 1_000_000L;
+    }
+
+    private synchronized void sample(long rttNanos) {
+        windowRttSum += rttNanos;
+        if (++windowSamples < SAMPLES_PER_WINDOW) {
+            return;
+        }
+
+        long rtt = windowRttSum / windowSamples;
+        windowRttSum = 0;
+        windowSamples = 0;
+
+        // A menor latência é reiniciada de tempos em tempos para acompanhar mudanças de carga
+        if (++windowsSinceReset >= WINDOWS_PER_MIN_RTT_RESET || minRttNanos == 0 || rtt < minRttNanos) {
+            minRttNanos = rtt;
+            windowsSinceReset = 0;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * minRttNanos / rtt));
+        double queueSize = Math.sqrt(estimatedLimit);
+        double newLimit = estimatedLimit * gradient + queueSize;
+        estimatedLimit = estimatedLimit * (1 - smoothing) + newLimit * smoothing;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, estimatedLimit));
+        limit = (int) estimatedLimit;
+    }
+}
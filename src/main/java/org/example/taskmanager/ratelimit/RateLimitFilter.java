@@ -0,0 +1,79 @@
+package org.example.taskmanager.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Aplica o token bucket do cliente (429) e o limite adaptativo de concorrência (503)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiterRegistry registry;
+    private final GradientConcurrencyLimiter concurrencyLimiter;
+    private final MeterRegistry meterRegistry;
+
+    public RateLimitFilter(RateLimiterRegistry registry, GradientConcurrencyLimiter concurrencyLimiter,
+                           MeterRegistry meterRegistry) {
+        this.registry = registry;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI();
+        EndpointClass endpointClass = EndpointClass.of(path);
+
+        TokenBucket bucket = registry.bucketFor(endpointClass, clientKey(request));
+        if (!bucket.tryConsume()) {
+            meterRegistry.counter("ratelimit.rejected", "reason", "rate", "class", endpointClass.name()).increment();
+            response.setHeader("Retry-After", String.valueOf(Math.max(1, bucket.secondsUntilNextToken())));
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, "Muitas requisições, tente novamente mais tarde");
+            return;
+        }
+
+        if (!concurrencyLimiter.tryAcquire()) {
+            meterRegistry.counter("ratelimit.rejected", "reason", "concurrency", "class", endpointClass.name())
+                    .increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, "Servidor sobrecarregado, tente novamente");
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                concurrencyLimiter.release();
+            } else {
+                concurrencyLimiter.release(System.nanoTime() - start);
+            }
+        }
+    }
+
+    // O id de usuário na URL é escolhido por quem chama e não serve de chave; a API não tem
+    // autenticação, então a chave é o IP do cliente. Atrás de proxy, o IP vem de X-Forwarded-For
+    // (server.forward-headers-strategy), senão todos os clientes dividiriam o mesmo bucket.
+    static String clientKey(HttpServletRequest request) {
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write("{\"error\":\"" + message + "\"}");
+    }
+}
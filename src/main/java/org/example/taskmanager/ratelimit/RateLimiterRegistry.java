@@ -0,0 +1,34 @@
+package org.example.taskmanager.ratelimit;
+
+import org.example.taskmanager.config.RateLimitProperties;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Um bucket por (classe de endpoint, cliente); cliente é o usuário autenticado ou o IP
+public class RateLimiterRegistry {
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final RateLimitProperties properties;
+
+    public RateLimiterRegistry(RateLimitProperties properties) {
+        this.properties = properties;
+    }
+
+    public TokenBucket bucketFor(EndpointClass endpointClass, String client) {
+        return buckets.computeIfAbsent(endpointClass.name() + ":" + client, key -> {
+            RateLimitProperties.Budget budget = properties.budgetFor(endpointClass);
+            return new TokenBucket(budget.getCapacity(), budget.getRefillPerSecond());
+        });
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    // Buckets cheios e ociosos equivalem a um bucket novo, então podem ser descartados
+    public void evictIdle(long idleMillis) {
+        long limit = System.nanoTime() - idleMillis * 1_000_000L;
+        buckets.values().removeIf(bucket -> bucket.getLastAccess() < limit && bucket.isFull());
+    }
+}
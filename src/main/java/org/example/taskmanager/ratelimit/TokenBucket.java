@@ -0,0 +1,53 @@
+package org.example.taskmanager.ratelimit;
+
+// Token bucket clássico: capacidade define a rajada, refill a taxa sustentada
+public class TokenBucket {
+
+    private final long capacity;
+    private final double refillPerNano;
+    private double tokens;
+    private long lastRefill;
+    private volatile long lastAccess;
+
+    public TokenBucket(long capacity, double refillPerSecond) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000d;
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+        this.lastAccess = lastRefill;
+    }
+
+    public synchronized boolean tryConsume() {
+        refill();
+        lastAccess = lastRefill;
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    // Segundos até o próximo token, usado no header Retry-After
+    public synchronized long secondsUntilNextToken() {
+        refill();
+        if (tokens >= 1) {
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / refillPerNano / 1_000_000_000d);
+    }
+
+    public synchronized boolean isFull() {
+        refill();
+        return tokens >= capacity;
+    }
+
+    public long getLastAccess() {
+        return lastAccess;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerNano);
+        lastRefill = now;
+    }
+}
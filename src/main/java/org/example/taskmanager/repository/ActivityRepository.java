@@ -1,15 +1,19 @@
 package org.example.taskmanager.repository;
 
 import org.example.taskmanager.entity.Activity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ActivityRepository extends JpaRepository<Activity, Long> {
+@Transactional(readOnly = true)
+public interface ActivityRepository extends JpaRepository<Activity, Long>, ActivityRepositoryCustom {
 
     List<Activity> findByUserId(Long userId);
 
@@ -25,10 +29,33 @@ public interface ActivityRepository extends JpaRepository<Activity, Long> {
     //contar atividade ativas do usuário
     long countByUserIdAndActiveTrue(Long userId);
 
+    //contar todas as atividades ativas
+    long countByActiveTrue();
+
     //buscar atividade em progresso
     @Query("SELECT a FROM Activity a LEFT JOIN FETCH a.progresses p WHERE a.user.id = :userId AND a.active = true")
     List<Activity> findActivityWithProgress(@Param("userId") Long userId);
 
     //Buscar Titulo Similar
     List<Activity> findByUserIdAndTitleContainingIgnoreCase(Long userId, String title);
+
+    //Atividades ativas do usuário com vencimento até a data
+    @Query("SELECT a FROM Activity a WHERE a.user.id = :userId AND a.active = true AND a.nextDueDate <= :date " +
+            "ORDER BY a.nextDueDate")
+    List<Activity> findDueByUserId(@Param("userId") Long userId, @Param("date") LocalDate date);
+
+    //Todas as atividades vencidas, em ordem de vencimento (primeiro lote)
+    @Query("SELECT a FROM Activity a WHERE a.active = true AND a.nextDueDate <= :date ORDER BY a.nextDueDate, a.id")
+    List<Activity> findDue(@Param("date") LocalDate date, Pageable pageable);
+
+    //Próximo lote a partir do último (nextDueDate, id) lido
+    @Query("SELECT a FROM Activity a WHERE a.active = true AND a.nextDueDate <= :date " +
+            "AND (a.nextDueDate > :afterDate OR (a.nextDueDate = :afterDate AND a.id > :afterId)) " +
+            "ORDER BY a.nextDueDate, a.id")
+    List<Activity> findDueAfter(@Param("date") LocalDate date, @Param("afterDate") LocalDate afterDate,
+                                @Param("afterId") Long afterId, Pageable pageable);
+
+    //Atividades criadas antes do cálculo de vencimento existir
+    @Query("SELECT a FROM Activity a WHERE a.nextDueDate IS NULL ORDER BY a.id")
+    List<Activity> findWithoutNextDueDate(Pageable pageable);
 }
\ No newline at end of file
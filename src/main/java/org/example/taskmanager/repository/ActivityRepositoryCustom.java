@@ -0,0 +1,18 @@
+package org.example.taskmanager.repository;
+
+import org.example.taskmanager.entity.Activity;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface ActivityRepositoryCustom {
+
+    // Campos aceitos em fields=, com os mesmos nomes de ActivityResponse
+    List<String> FIELDS = List.of("id", "title", "description", "frequency", "startDate", "active", "nextDueDate");
+
+    //Atividades do usuário lendo só as colunas pedidas; active, frequency e dueBy são filtros opcionais
+    List<Map<String, Object>> findFieldsByUserId(Long userId, Boolean active, Activity.Frequency frequency,
+                                                 LocalDate dueBy, Collection<String> fields);
+}
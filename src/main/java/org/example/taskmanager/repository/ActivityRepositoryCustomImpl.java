@@ -0,0 +1,61 @@
+package org.example.taskmanager.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.example.taskmanager.entity.Activity;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+@Transactional(readOnly = true)
+class ActivityRepositoryCustomImpl implements ActivityRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findFieldsByUserId(Long userId, Boolean active, Activity.Frequency frequency,
+                                                        LocalDate dueBy, Collection<String> fields) {
+        List<String> selected = FieldProjection.normalize(fields, FIELDS);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Activity> activity = query.from(Activity.class);
+
+        query.multiselect(selected.stream().<Selection<?>>map(field -> column(activity, field).alias(field)).toList());
+
+        List<Predicate> where = new ArrayList<>();
+        where.add(cb.equal(activity.get("user").get("id"), userId));
+        if (active != null) {
+            where.add(cb.equal(activity.get("active"), active));
+        }
+        if (frequency != null) {
+            where.add(cb.equal(activity.get("frequency"), frequency));
+        }
+        if (dueBy != null) {
+            where.add(cb.lessThanOrEqualTo(activity.<LocalDate>get("nextDueDate"), dueBy));
+            query.orderBy(cb.asc(activity.get("nextDueDate")));
+        }
+        query.where(where.toArray(Predicate[]::new));
+
+        // frequency como em ActivityResponse: name(), p.ex. "DAILY"
+        return FieldProjection.toMaps(entityManager.createQuery(query).getResultList(), selected, Enum::name);
+    }
+
+    private static Expression<?> column(Root<Activity> activity, String field) {
+        return switch (field) {
+            case "startDate" -> activity.get("initDate");
+            default -> activity.get(field);
+        };
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.taskmanager.repository;
+
+import org.example.taskmanager.entity.EmailDirectory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface EmailDirectoryRepository extends JpaRepository<EmailDirectory, String> {
+
+    //INSERT simples: falha com chave duplicada se o e-mail já tem dono ou reserva
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO email_directory (email, user_id, claimed_at) VALUES (:email, NULL, :now)",
+            nativeQuery = true)
+    int insertClaim(@Param("email") String email, @Param("now") Instant now);
+
+    //Reservas recentes, lidas periodicamente pelo filtro de e-mails de cada instância
+    @Query("SELECT d.email FROM EmailDirectory d WHERE d.claimedAt >= :since")
+    List<String> findEmailsClaimedSince(@Param("since") Instant since);
+
+    //Retoma uma reserva abandonada (cadastro que caiu antes de confirmar)
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailDirectory d SET d.claimedAt = :now WHERE d.email = :email AND d.userId IS NULL " +
+            "AND d.claimedAt < :staleBefore")
+    int takeOverStaleClaim(@Param("email") String email, @Param("now") Instant now,
+                           @Param("staleBefore") Instant staleBefore);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailDirectory d SET d.userId = :userId WHERE d.email = :email")
+    int assign(@Param("email") String email, @Param("userId") Long userId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM EmailDirectory d WHERE d.email = :email")
+    int release(@Param("email") String email);
+}
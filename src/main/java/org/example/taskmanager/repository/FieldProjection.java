@@ -0,0 +1,52 @@
+package org.example.taskmanager.repository;
+
+import jakarta.persistence.Tuple;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+// Apoio às consultas de fields=: valida os campos pedidos e converte as tuplas em mapas campo -> valor,
+// na ordem em que os campos foram pedidos. Os controllers validam antes de chamar o repositório.
+public final class FieldProjection {
+
+    private FieldProjection() {
+    }
+
+    public static List<String> normalize(Collection<String> fields, List<String> allowed) {
+        List<String> selected = fields.stream().map(String::trim).filter(field -> !field.isEmpty()).distinct().toList();
+        if (selected.isEmpty()) {
+            throw new UnknownFieldException("Informe ao menos um campo. Use: " + String.join(", ", allowed));
+        }
+        for (String field : selected) {
+            if (!allowed.contains(field)) {
+                throw new UnknownFieldException("Campo inválido: " + field + ". Use: " + String.join(", ", allowed));
+            }
+        }
+        return selected;
+    }
+
+    // Enums saem como na resposta completa de cada recurso (enumFormat)
+    static List<Map<String, Object>> toMaps(List<Tuple> rows, List<String> fields,
+                                            Function<Enum<?>, String> enumFormat) {
+        List<Map<String, Object>> results = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (String field : fields) {
+                Object value = row.get(field);
+                values.put(field, value instanceof Enum<?> constant ? enumFormat.apply(constant) : value);
+            }
+            results.add(values);
+        }
+        return results;
+    }
+
+    public static class UnknownFieldException extends IllegalArgumentException {
+        public UnknownFieldException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.taskmanager.repository;
+
+import org.example.taskmanager.entity.JobLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Repository
+public interface JobLockRepository extends JpaRepository<JobLock, String> {
+
+    //Primeira execução do job: falha com chave duplicada se a trava já existe
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO job_lock (name, locked_until, locked_by) VALUES (:name, :until, :owner)",
+            nativeQuery = true)
+    int insertLock(@Param("name") String name, @Param("until") Instant until, @Param("owner") String owner);
+
+    //UPDATE condicional: só uma instância encontra a trava vencida e fica com ela
+    @Modifying
+    @Transactional
+    @Query("UPDATE JobLock l SET l.lockedUntil = :until, l.lockedBy = :owner WHERE l.name = :name " +
+            "AND l.lockedUntil <= :now")
+    int takeOverExpired(@Param("name") String name, @Param("until") Instant until, @Param("owner") String owner,
+                        @Param("now") Instant now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE JobLock l SET l.lockedUntil = :until WHERE l.name = :name AND l.lockedBy = :owner")
+    int release(@Param("name") String name, @Param("until") Instant until, @Param("owner") String owner);
+}
@@ -0,0 +1,36 @@
+package org.example.taskmanager.repository;
+
+import org.example.taskmanager.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+// Sem readOnly no nível da interface: o outbox é sempre lido do primário
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    //Próximo lote de uma lane, na ordem em que foi gravado
+    List<OutboxEvent> findByLaneOrderByIdAsc(Integer lane, Pageable pageable);
+
+    //Pendentes e evento mais antigo numa consulta só, lida a cada ciclo do relay
+    @Query("SELECT COUNT(e) AS pending, MIN(e.createdAt) AS oldest FROM OutboxEvent e")
+    Backlog findBacklog();
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OutboxEvent e WHERE e.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    interface Backlog {
+        long getPending();
+        Instant getOldest();
+    }
+}
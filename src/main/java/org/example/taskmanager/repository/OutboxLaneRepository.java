@@ -0,0 +1,24 @@
+package org.example.taskmanager.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.example.taskmanager.entity.OutboxLane;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface OutboxLaneRepository extends JpaRepository<OutboxLane, Integer> {
+
+    //Trava a lane pela chave primária, sem ordenação: o InnoDB trava só essa linha. Timeout -2 é o
+    //SKIP LOCKED do Hibernate: vazio quando outra instância está com a lane, em vez de esperar
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT l FROM OutboxLane l WHERE l.id = :lane")
+    Optional<OutboxLane> findUnlockedById(@Param("lane") Integer lane);
+}
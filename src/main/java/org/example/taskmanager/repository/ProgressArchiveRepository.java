@@ -0,0 +1,52 @@
+package org.example.taskmanager.repository;
+
+import org.example.taskmanager.entity.Progress;
+import org.example.taskmanager.entity.ProgressArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+@Transactional(readOnly = true)
+public interface ProgressArchiveRepository extends JpaRepository<ProgressArchive, Long>,
+        ProgressArchiveRepositoryCustom {
+
+    List<ProgressArchive> findByUserIdOrderByFinishDateDesc(Long userId);
+
+    List<ProgressArchive> findByActivityIdOrderByFinishDateDesc(Long activityId);
+
+    List<ProgressArchive> findByFinishDateBetween(LocalDate start, LocalDate finish);
+
+    Optional<ProgressArchive> findFirstByActivityIdOrderByFinishDateDesc(Long activityId);
+
+    boolean existsByActivityIdAndFinishDate(Long activityId, LocalDate finishDate);
+
+    long countByUserIdAndStatus(Long userId, Progress.Status status);
+
+    @Query("SELECT pa.status, COUNT(pa) FROM ProgressArchive pa GROUP BY pa.status")
+    List<Object[]> countGroupByStatus();
+
+    @Query("SELECT pa.userId, pa.status, COUNT(pa) FROM ProgressArchive pa WHERE pa.userId IN :userIds " +
+            "GROUP BY pa.userId, pa.status")
+    List<Object[]> countGroupByUserIdAndStatus(@Param("userIds") Collection<Long> userIds);
+
+    @Query("SELECT a.frequency, COUNT(pa) FROM ProgressArchive pa, Activity a WHERE a.id = pa.activityId " +
+            "GROUP BY a.frequency")
+    List<Object[]> countGroupByFrequency();
+
+    //Copia os progressos para o arquivo (mesma transação do delete em ProgressRepository)
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO progress_archive (progress_id, finish_date, status, activity_id, user_id) " +
+            "SELECT progress_id, finish_date, status, activity_id, user_id FROM progress WHERE progress_id IN (:ids)",
+            nativeQuery = true)
+    int copyFromProgress(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,13 @@
+package org.example.taskmanager.repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface ProgressArchiveRepositoryCustom {
+
+    //Mesma projeção de ProgressRepositoryCustom (campos em ProgressRepositoryCustom.FIELDS) sobre o arquivo
+    List<Map<String, Object>> findFields(Long userId, Long activityId, LocalDate from, LocalDate to,
+                                         Collection<String> fields);
+}
@@ -0,0 +1,70 @@
+package org.example.taskmanager.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.criteria.Subquery;
+import org.example.taskmanager.entity.Activity;
+import org.example.taskmanager.entity.ProgressArchive;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+@Transactional(readOnly = true)
+class ProgressArchiveRepositoryCustomImpl implements ProgressArchiveRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findFields(Long userId, Long activityId, LocalDate from, LocalDate to,
+                                                Collection<String> fields) {
+        List<String> selected = FieldProjection.normalize(fields, ProgressRepositoryCustom.FIELDS);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<ProgressArchive> archive = query.from(ProgressArchive.class);
+
+        query.multiselect(selected.stream()
+                .<Selection<?>>map(field -> column(cb, query, archive, field).alias(field)).toList());
+
+        List<Predicate> where = new ArrayList<>();
+        if (userId != null) {
+            where.add(cb.equal(archive.get("userId"), userId));
+        }
+        if (activityId != null) {
+            where.add(cb.equal(archive.get("activityId"), activityId));
+        }
+        if (from != null) {
+            where.add(cb.greaterThanOrEqualTo(archive.<LocalDate>get("finishDate"), from));
+        }
+        if (to != null) {
+            where.add(cb.lessThanOrEqualTo(archive.<LocalDate>get("finishDate"), to));
+        }
+        query.where(where.toArray(Predicate[]::new)).orderBy(cb.desc(archive.get("finishDate")));
+
+        // status como em ProgressResponse: toString(), p.ex. "finished"
+        return FieldProjection.toMaps(entityManager.createQuery(query).getResultList(), selected, Enum::toString);
+    }
+
+    // O arquivo não tem associação com activity: o título vem de uma subconsulta, só quando pedido
+    private static Expression<?> column(CriteriaBuilder cb, CriteriaQuery<Tuple> query,
+                                        Root<ProgressArchive> archive, String field) {
+        if (!field.equals("activityTitle")) {
+            return archive.get(field);
+        }
+        Subquery<String> title = query.subquery(String.class);
+        Root<Activity> activity = title.from(Activity.class);
+        return title.select(activity.<String>get("title"))
+                .where(cb.equal(activity.get("id"), archive.get("activityId")));
+    }
+}
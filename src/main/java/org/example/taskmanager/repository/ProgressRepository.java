@@ -1,47 +1,116 @@
 package org.example.taskmanager.repository;
 
 import org.example.taskmanager.entity.Progress;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ProgressRepository extends JpaRepository<Progress,Long> {
+@Transactional(readOnly = true)
+public interface ProgressRepository extends JpaRepository<Progress,Long>, ProgressRepositoryCustom {
+
+    // Sem open-in-view a atividade não pode ser carregada depois da consulta: as buscas
+    // usadas nas respostas (título da atividade) já trazem a atividade junto.
+    //Progresso com a atividade, para remover e recalcular o vencimento
+    @EntityGraph(attributePaths = "activity")
+    Optional<Progress> findWithActivityById(Long id);
 
     //Ver pprogresso de uma atividade especifica
+    @EntityGraph(attributePaths = "activity")
     List<Progress> findByActivityIdOrderByFinishDateDesc(Long activityId);
 
     // Ver progresso de um usuario especifico
-    @Query("SELECT p FROM Progress p WHERE p.activity.user.id = :userId ORDER BY p.finishDate DESC")
+    @EntityGraph(attributePaths = "activity")
+    @Query("SELECT p FROM Progress p WHERE p.userId = :userId ORDER BY p.finishDate DESC")
     List<Progress> findByUserId(@Param("userId")Long userId);
 
     //Buscar progresso por data
+    @EntityGraph(attributePaths = "activity")
     List<Progress> findByFinishDateBetween(LocalDate start, LocalDate finish);
 
     //Progresso de hoje para um usuario
-    @Query("SELECT p FROM Progress p WHERE p.activity.user.id = :userId AND p.finishDate = :today")
+    @EntityGraph(attributePaths = "activity")
+    @Query("SELECT p FROM Progress p WHERE p.userId = :userId AND p.finishDate = :today")
     List<Progress> findProgressToday(@Param("userId")Long userId, @Param("today")LocalDate today);
 
     //Contar progressos por status
     long countByStatus(Progress.Status status);
 
+    //Totais por status, usados para semear os contadores globais
+    @Query("SELECT p.status, COUNT(p) FROM Progress p GROUP BY p.status")
+    List<Object[]> countGroupByStatus();
+
+    //Totais por frequência da atividade
+    @Query("SELECT a.frequency, COUNT(p) FROM Progress p JOIN p.activity a GROUP BY a.frequency")
+    List<Object[]> countGroupByFrequency();
+
     //Contar progressos de um usuário por status
-    @Query("SELECT COUNT(p) FROM Progress p WHERE p.activity.user.id = :userId AND p.status = :status")
+    @Query("SELECT COUNT(p) FROM Progress p WHERE p.userId = :userId AND p.status = :status")
     long countByUserAndStatus(@Param("userId")Long userId, @Param("status") Progress.Status status);
 
 
+    //Totais por usuário e status, para o resumo em lote
+    @Query("SELECT p.userId, p.status, COUNT(p) FROM Progress p WHERE p.userId IN :userIds GROUP BY p.userId, p.status")
+    List<Object[]> countGroupByUserIdAndStatus(@Param("userIds") Collection<Long> userIds);
+
     //Ultimo progresso de uma atividade
+    @EntityGraph(attributePaths = "activity")
     Optional<Progress> findFirstByActivityIdOrderByFinishDateDesc(Long activityId);
 
     //Verificar se já existe progresso para atividade em data especifica
     Optional<Progress> findByActivityIdAndFinishDate(Long activityId, LocalDate date);
 
     //Estatisticas: progresso nos últimos 30 dias
-    @Query("SELECT p FROM Progress p WHERE p.activity.user.id = :userId AND p.finishDate>= :dataInicio ORDER BY p.finishDate DESC")
+    @EntityGraph(attributePaths = "activity")
+    @Query("SELECT p FROM Progress p WHERE p.userId = :userId AND p.finishDate>= :dataInicio ORDER BY p.finishDate DESC")
     List<Progress> findProgressLast30Days(@Param("userId")Long userId, @Param("dataInicio")LocalDate dataInicio);
+
+    //Variantes pelo dono da atividade, usadas enquanto progress.user_id não está preenchido (ProgressUserColumn)
+    @EntityGraph(attributePaths = "activity")
+    @Query("SELECT p FROM Progress p WHERE p.activity.user.id = :userId ORDER BY p.finishDate DESC")
+    List<Progress> findByActivityUserId(@Param("userId")Long userId);
+
+    @EntityGraph(attributePaths = "activity")
+    @Query("SELECT p FROM Progress p WHERE p.activity.user.id = :userId AND p.finishDate = :today")
+    List<Progress> findProgressTodayByActivityUser(@Param("userId")Long userId, @Param("today")LocalDate today);
+
+    @Query("SELECT COUNT(p) FROM Progress p WHERE p.activity.user.id = :userId AND p.status = :status")
+    long countByActivityUserAndStatus(@Param("userId")Long userId, @Param("status") Progress.Status status);
+
+    @EntityGraph(attributePaths = "activity")
+    @Query("SELECT p FROM Progress p WHERE p.activity.user.id = :userId AND p.finishDate>= :dataInicio ORDER BY p.finishDate DESC")
+    List<Progress> findProgressLast30DaysByActivityUser(@Param("userId")Long userId, @Param("dataInicio")LocalDate dataInicio);
+
+    @Query("SELECT p.activity.user.id, p.status, COUNT(p) FROM Progress p WHERE p.activity.user.id IN :userIds " +
+            "GROUP BY p.activity.user.id, p.status")
+    List<Object[]> countGroupByActivityUserIdAndStatus(@Param("userIds") Collection<Long> userIds);
+
+    //Ainda há linhas sem user_id?
+    boolean existsByUserIdIsNull();
+
+    //Preenche user_id de progressos antigos, em lotes
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE progress p SET p.user_id = (SELECT a.user_id FROM activity a WHERE a.activity_id = p.activity_id) " +
+            "WHERE p.user_id IS NULL LIMIT :batchSize", nativeQuery = true)
+    int backfillUserId(@Param("batchSize") int batchSize);
+
+    //Ids de progressos anteriores à data, para arquivamento em lotes (só linhas com user_id, que o arquivo exige)
+    @Query("SELECT p.id FROM Progress p WHERE p.finishDate < :before AND p.userId IS NOT NULL ORDER BY p.id")
+    List<Long> findIdsFinishedBefore(@Param("before") LocalDate before, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Progress p WHERE p.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
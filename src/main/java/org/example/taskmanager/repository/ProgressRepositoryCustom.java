@@ -0,0 +1,17 @@
+package org.example.taskmanager.repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface ProgressRepositoryCustom {
+
+    // Campos aceitos em fields=, com os mesmos nomes de ProgressResponse
+    List<String> FIELDS = List.of("id", "finishDate", "status", "activityId", "activityTitle");
+
+    //Progressos lendo só as colunas pedidas, do mais recente ao mais antigo. Filtros nulos são ignorados;
+    //a tabela activity só é lida quando activityTitle é pedido
+    List<Map<String, Object>> findFields(Long userId, Long activityId, LocalDate from, LocalDate to,
+                                         Collection<String> fields);
+}
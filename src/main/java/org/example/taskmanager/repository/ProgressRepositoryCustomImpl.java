@@ -0,0 +1,72 @@
+package org.example.taskmanager.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.example.taskmanager.entity.Progress;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+@Transactional(readOnly = true)
+class ProgressRepositoryCustomImpl implements ProgressRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ProgressUserColumn progressUserColumn;
+
+    ProgressRepositoryCustomImpl(ProgressUserColumn progressUserColumn) {
+        this.progressUserColumn = progressUserColumn;
+    }
+
+    @Override
+    public List<Map<String, Object>> findFields(Long userId, Long activityId, LocalDate from, LocalDate to,
+                                                Collection<String> fields) {
+        List<String> selected = FieldProjection.normalize(fields, FIELDS);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Progress> progress = query.from(Progress.class);
+
+        query.multiselect(selected.stream().<Selection<?>>map(field -> column(progress, field).alias(field)).toList());
+
+        List<Predicate> where = new ArrayList<>();
+        if (userId != null) {
+            where.add(cb.equal(progressUserColumn.isBackfilled()
+                    ? progress.get("userId")
+                    : progress.get("activity").get("user").get("id"), userId));
+        }
+        if (activityId != null) {
+            where.add(cb.equal(progress.get("activity").get("id"), activityId));
+        }
+        if (from != null) {
+            where.add(cb.greaterThanOrEqualTo(progress.<LocalDate>get("finishDate"), from));
+        }
+        if (to != null) {
+            where.add(cb.lessThanOrEqualTo(progress.<LocalDate>get("finishDate"), to));
+        }
+        query.where(where.toArray(Predicate[]::new)).orderBy(cb.desc(progress.get("finishDate")));
+
+        // status como em ProgressResponse: toString(), p.ex. "finished"
+        return FieldProjection.toMaps(entityManager.createQuery(query).getResultList(), selected, Enum::toString);
+    }
+
+    // activityId vem da própria chave estrangeira; só activityTitle faz o join com activity
+    private static Expression<?> column(Root<Progress> progress, String field) {
+        return switch (field) {
+            case "activityId" -> progress.get("activity").get("id");
+            case "activityTitle" -> progress.join("activity").get("title");
+            default -> progress.get(field);
+        };
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.taskmanager.repository;
+
+import org.springframework.stereotype.Component;
+
+// Indica se progress.user_id já foi preenchido em todas as linhas (ProgressUserBackfill).
+// Até lá as consultas por usuário seguem pelo dono da atividade, como antes da coluna existir,
+// para não deixar de fora as linhas antigas. Volta a pendente quando a verificação periódica
+// encontra linhas novas sem user_id, gravadas por uma instância da versão anterior.
+@Component
+public class ProgressUserColumn {
+
+    private volatile boolean backfilled;
+
+    public boolean isBackfilled() {
+        return backfilled;
+    }
+
+    public void markBackfilled() {
+        backfilled = true;
+    }
+
+    public void markPending() {
+        backfilled = false;
+    }
+}
@@ -1,11 +1,14 @@
 package org.example.taskmanager.repository;
 
 import org.example.taskmanager.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -22,4 +25,18 @@ public interface UserRepository extends JpaRepository <User, Long> {
 
     @Query("SELECT COUNT(a) FROM Activity a WHERE a.user.id = :userId AND a.active = true")
     long countActiveActivitiesByUserId(@Param("userId") Long userId);
+
+    //Total e ativas por usuário numa consulta só, para o resumo em lote
+    @Query("SELECT a.user.id, COUNT(a), SUM(CASE WHEN a.active = true THEN 1 ELSE 0 END) FROM Activity a " +
+            "WHERE a.user.id IN :userIds GROUP BY a.user.id")
+    List<Object[]> countActivitiesGroupByUserId(@Param("userIds") Collection<Long> userIds);
+
+    //e-mails em lotes ordenados por id, para carregar o filtro de e-mails
+    @Query("SELECT u.id AS id, u.email AS email FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<EmailView> findEmailsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    interface EmailView {
+        Long getId();
+        String getEmail();
+    }
 }
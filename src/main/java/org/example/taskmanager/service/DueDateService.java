@@ -0,0 +1,79 @@
+package org.example.taskmanager.service;
+
+import lombok.RequiredArgsConstructor;
+import org.example.taskmanager.entity.Activity;
+import org.example.taskmanager.entity.Progress;
+import org.example.taskmanager.entity.ProgressArchive;
+import org.example.taskmanager.repository.ActivityRepository;
+import org.example.taskmanager.repository.ProgressArchiveRepository;
+import org.example.taskmanager.repository.ProgressRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+// Mantém Activity.nextDueDate: a primeira ocorrência (initDate + k períodos)
+// depois da última conclusão, ou initDate quando ainda não há progresso
+@Service
+@RequiredArgsConstructor
+public class DueDateService {
+
+    private final ActivityRepository activityRepository;
+    private final ProgressRepository progressRepository;
+    private final ProgressArchiveRepository progressArchiveRepository;
+
+    public static LocalDate nextDueDate(Activity.Frequency frequency, LocalDate initDate, LocalDate lastFinish) {
+        if (lastFinish == null || lastFinish.isBefore(initDate)) {
+            return initDate;
+        }
+
+        long periods = switch (frequency) {
+            case DAILY -> ChronoUnit.DAYS.between(initDate, lastFinish);
+            case WEEKLY -> ChronoUnit.WEEKS.between(initDate, lastFinish);
+            case MONTHLY -> ChronoUnit.MONTHS.between(initDate, lastFinish);
+        };
+
+        LocalDate next = occurrence(frequency, initDate, periods);
+        while (!next.isAfter(lastFinish)) {
+            next = occurrence(frequency, initDate, ++periods);
+        }
+        return next;
+    }
+
+    // Conclusão registrada: só avança, nunca volta o vencimento
+    public void onProgressCreated(Activity activity, LocalDate finishDate) {
+        LocalDate candidate = nextDueDate(activity.getFrequency(), activity.getInitDate(), finishDate);
+        if (activity.getNextDueDate() == null || candidate.isAfter(activity.getNextDueDate())) {
+            activity.setNextDueDate(candidate);
+            activityRepository.save(activity);
+        }
+    }
+
+    // Recalcula a partir da última conclusão (progresso removido, frequência ou início alterados)
+    public void refresh(Activity activity) {
+        LocalDate lastFinish = progressRepository.findFirstByActivityIdOrderByFinishDateDesc(activity.getId())
+                .map(Progress::getFinishDate)
+                .or(() -> progressArchiveRepository.findFirstByActivityIdOrderByFinishDateDesc(activity.getId())
+                        .map(ProgressArchive::getFinishDate))
+                .orElse(null);
+        activity.setNextDueDate(nextDueDate(activity.getFrequency(), activity.getInitDate(), lastFinish));
+        activityRepository.save(activity);
+    }
+
+    // Preenche nextDueDate de um lote de atividades antigas; retorna quantas foram atualizadas
+    public int backfillBatch(int batchSize) {
+        List<Activity> batch = activityRepository.findWithoutNextDueDate(PageRequest.of(0, batchSize));
+        batch.forEach(this::refresh);
+        return batch.size();
+    }
+
+    private static LocalDate occurrence(Activity.Frequency frequency, LocalDate initDate, long periods) {
+        return switch (frequency) {
+            case DAILY -> initDate.plusDays(periods);
+            case WEEKLY -> initDate.plusWeeks(periods);
+            case MONTHLY -> initDate.plusMonths(periods);
+        };
+    }
+}
@@ -0,0 +1,7 @@
+package org.example.taskmanager.service;
+
+import java.time.LocalDate;
+
+// Lembrete de atividade vencida entregue ao DueReminderPublisher
+public record DueReminder(Long userId, Long activityId, String title, LocalDate dueDate) {
+}
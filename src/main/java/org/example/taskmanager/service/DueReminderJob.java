@@ -0,0 +1,101 @@
+package org.example.taskmanager.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.taskmanager.datasource.ShardRouter;
+import org.example.taskmanager.entity.Activity;
+import org.example.taskmanager.repository.ActivityRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+// Percorre todas as atividades vencidas em lotes ordenados por (nextDueDate, id),
+// usando paginação por chave para não degradar com milhões de linhas.
+// Lembretes e backfill rodam em uma instância só (JobLockService), senão cada réplica
+// publicaria o mesmo lembrete.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DueReminderJob implements ApplicationRunner {
+
+    private final ActivityRepository activityRepository;
+    private final DueDateService dueDateService;
+    private final DueReminderPublisher publisher;
+    private final ShardRouter shardRouter;
+    private final JobLockService jobLockService;
+
+    @Value("${app.due.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.due.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    // Na subida, calcula o vencimento das atividades criadas antes desta coluna existir
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!backfillOnStartup) {
+            return;
+        }
+        jobLockService.runExclusively("due-date-backfill", Duration.ofHours(1), Duration.ZERO, this::backfill);
+    }
+
+    private void backfill() {
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            int shardIndex = shard;
+            int updated = 0;
+            int batch;
+            // Uma transação por lote
+            do {
+                batch = shardRouter.onShard(shardIndex, () -> dueDateService.backfillBatch(batchSize));
+                updated += batch;
+            } while (batch == batchSize);
+            if (updated > 0) {
+                log.info("Backfill de activity.next_due_date no shard {}: {} linhas", shard, updated);
+            }
+        }
+    }
+
+    @Scheduled(cron = "${app.due.reminder-cron:0 0 7 * * *}")
+    public void publishDueReminders() {
+        // A trava fica até 1h depois do início: um disparo atrasado em outra instância não repete o dia
+        jobLockService.runExclusively("due-reminders", Duration.ofHours(6), Duration.ofHours(1), this::publishAll);
+    }
+
+    private void publishAll() {
+        LocalDate today = LocalDate.now();
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            long total = publishShard(shard, today);
+            log.info("Lembretes publicados no shard {}: {}", shard, total);
+        }
+    }
+
+    // Cada página é lida na própria transação; a publicação acontece fora dela
+    private long publishShard(int shard, LocalDate today) {
+        Pageable page = PageRequest.of(0, batchSize);
+        List<Activity> batch = shardRouter.onShard(shard, () -> activityRepository.findDue(today, page));
+        long total = 0;
+
+        while (!batch.isEmpty()) {
+            publisher.publish(batch.stream()
+                    .map(a -> new DueReminder(a.getUser().getId(), a.getId(), a.getTitle(), a.getNextDueDate()))
+                    .toList());
+            total += batch.size();
+
+            if (batch.size() < batchSize) {
+                break;
+            }
+            Activity last = batch.get(batch.size() - 1);
+            batch = shardRouter.onShard(shard, () ->
+                    activityRepository.findDueAfter(today, last.getNextDueDate(), last.getId(), page));
+        }
+        return total;
+    }
+}
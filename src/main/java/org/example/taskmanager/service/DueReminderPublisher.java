@@ -0,0 +1,9 @@
+package org.example.taskmanager.service;
+
+import java.util.List;
+
+// Destino dos lembretes (push, e-mail, fila); recebe um lote por vez em ordem de vencimento
+public interface DueReminderPublisher {
+
+    void publish(List<DueReminder> reminders);
+}
@@ -0,0 +1,59 @@
+package org.example.taskmanager.service;
+
+import org.example.taskmanager.datasource.ShardRouter;
+import org.example.taskmanager.repository.EmailDirectoryRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+// Unicidade global de e-mail entre shards: o e-mail é reservado no diretório do shard 0 antes de
+// gravar o usuário no shard dele, e confirmado (ou liberado) depois. Duas reservas simultâneas do
+// mesmo e-mail colidem na chave primária, o que a verificação "existe em algum shard" não garante.
+// O diretório só conhece e-mails cadastrados ou alterados depois dele existir, por isso quem chama
+// também consulta os usuários existentes.
+@Service
+public class EmailDirectoryService {
+
+    private final EmailDirectoryRepository emailDirectoryRepository;
+    private final ShardRouter shardRouter;
+    private final Duration claimTimeout;
+
+    public EmailDirectoryService(EmailDirectoryRepository emailDirectoryRepository, ShardRouter shardRouter,
+                                 @Value("${app.email-directory.claim-timeout:5m}") Duration claimTimeout) {
+        this.emailDirectoryRepository = emailDirectoryRepository;
+        this.shardRouter = shardRouter;
+        this.claimTimeout = claimTimeout;
+    }
+
+    // false quando outro usuário já tem ou está reservando o e-mail
+    public boolean claim(String email) {
+        String key = EmailExistenceFilter.normalize(email);
+        Instant now = Instant.now();
+        // A inserção que falha desfaz a própria transação; a retomada roda em outra
+        try {
+            shardRouter.onShard(0, () -> emailDirectoryRepository.insertClaim(key, now));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return shardRouter.onShard(0, () ->
+                    emailDirectoryRepository.takeOverStaleClaim(key, now, now.minus(claimTimeout))) == 1;
+        }
+    }
+
+    // E-mails reservados (ou com reserva retomada) a partir do instante, por qualquer instância;
+    // inclui reservas ainda não confirmadas
+    public List<String> claimedSince(Instant since) {
+        return shardRouter.onShard(0, () -> emailDirectoryRepository.findEmailsClaimedSince(since));
+    }
+
+    public void assign(String email, Long userId) {
+        shardRouter.onShard(0, () -> emailDirectoryRepository.assign(EmailExistenceFilter.normalize(email), userId));
+    }
+
+    public void release(String email) {
+        shardRouter.onShard(0, () -> emailDirectoryRepository.release(EmailExistenceFilter.normalize(email)));
+    }
+}
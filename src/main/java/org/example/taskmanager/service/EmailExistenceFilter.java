@@ -0,0 +1,172 @@
+package org.example.taskmanager.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.taskmanager.datasource.ShardRouter;
+import org.example.taskmanager.event.UserChangedEvent;
+import org.example.taskmanager.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+
+// Evita a busca de e-mail em todos os shards na maioria das consultas de /check-email, do cadastro
+// e da troca de e-mail: um "não contém" responde sem ir ao banco e só um "pode conter" é confirmado
+// com existsByEmail em todos os shards. O filtro é local a cada instância; cadastros e trocas de
+// e-mail feitos nas outras chegam pelas reservas recentes do diretório global (EmailDirectoryService),
+// lidas a cada app.email-filter.sync-interval, e não por uma consulta a cada verificação.
+@Slf4j
+@Service
+public class EmailExistenceFilter {
+
+    private final UserRepository userRepository;
+    private final ShardRouter shardRouter;
+    private final EmailDirectoryService emailDirectoryService;
+    private final double falsePositiveRate;
+    private final int batchSize;
+    private final boolean rebuildOnStartup;
+    private final Duration syncOverlap;
+    private final Counter negatives;
+    private final Counter confirmed;
+    private final Counter falsePositives;
+
+    private volatile BloomFilter filter;
+    // Recebe também as inclusões feitas enquanto um rebuild está em andamento
+    private volatile BloomFilter building;
+    // Reservas do diretório feitas a partir deste instante ainda não foram lidas
+    private volatile Instant syncedUntil;
+
+    public EmailExistenceFilter(UserRepository userRepository, ShardRouter shardRouter,
+                                EmailDirectoryService emailDirectoryService, MeterRegistry meterRegistry,
+                                @Value("${app.email-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                                @Value("${app.email-filter.batch-size:5000}") int batchSize,
+                                @Value("${app.email-filter.rebuild-on-startup:true}") boolean rebuildOnStartup,
+                                @Value("${app.email-filter.sync-overlap:1m}") Duration syncOverlap) {
+        this.userRepository = userRepository;
+        this.shardRouter = shardRouter;
+        this.emailDirectoryService = emailDirectoryService;
+        this.falsePositiveRate = falsePositiveRate;
+        this.batchSize = batchSize;
+        this.rebuildOnStartup = rebuildOnStartup;
+        this.syncOverlap = syncOverlap;
+        this.negatives = meterRegistry.counter("email.filter.lookups", "result", "negative");
+        this.confirmed = meterRegistry.counter("email.filter.lookups", "result", "confirmed");
+        this.falsePositives = meterRegistry.counter("email.filter.lookups", "result", "false_positive");
+        Gauge.builder("email.filter.false.positive.rate", this, EmailExistenceFilter::observedFalsePositiveRate)
+                .register(meterRegistry);
+    }
+
+    public static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public boolean exists(String email) {
+        BloomFilter current = filter;
+        if (current != null && !current.mightContain(normalize(email))) {
+            negatives.increment();
+            return false;
+        }
+
+        boolean exists = shardRouter.anyMatch(() -> userRepository.existsByEmail(email));
+        if (current != null) {
+            (exists ? confirmed : falsePositives).increment();
+        }
+        return exists;
+    }
+
+    // Fração de e-mails inexistentes que o filtro deixou passar até o banco
+    public double observedFalsePositiveRate() {
+        double fp = falsePositives.count();
+        double total = fp + negatives.count();
+        return total == 0 ? 0 : fp / total;
+    }
+
+    // Sem o rebuild na subida (perfil faststart) não há filtro e exists() consulta os shards até o
+    // primeiro rebuild agendado
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (rebuildOnStartup) {
+            rebuild();
+        }
+    }
+
+    // O filtro só cresce (e-mails trocados continuam nele), então é refeito todo dia; é também o que
+    // carrega o filtro nas instâncias sem rebuild na subida e sem JMX
+    @Scheduled(cron = "${app.email-filter.rebuild-cron:0 15 4 * * *}")
+    public synchronized void rebuild() {
+        long expected = Math.max(shardRouter.sum(userRepository::count) * 2, 10_000);
+        BloomFilter next = new BloomFilter(expected, falsePositiveRate);
+        building = next;
+        // Reservas feitas durante a carga chegam pelo sync, que já alimenta o filtro novo
+        if (syncedUntil == null) {
+            syncedUntil = Instant.now();
+        }
+
+        long loaded = 0;
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            loaded += shardRouter.onShard(shard, () -> load(next));
+        }
+
+        filter = next;
+        building = null;
+        log.info("Filtro de e-mails carregado: {} e-mails, {} bits, {} hashes", loaded, next.getBitCount(),
+                next.getHashCount());
+    }
+
+    // E-mails reservados no diretório desde a última leitura, por qualquer instância. A sobreposição
+    // cobre a diferença de relógio entre instâncias; incluir de novo um e-mail não muda o filtro.
+    @Scheduled(fixedDelayString = "${app.email-filter.sync-interval:2000}")
+    public void syncRecentClaims() {
+        Instant since = syncedUntil;
+        if (since == null) {
+            return;
+        }
+        Instant now = Instant.now();
+        emailDirectoryService.claimedSince(since.minus(syncOverlap)).forEach(this::add);
+        syncedUntil = now;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.email() != null) {
+            add(event.email());
+        }
+    }
+
+    private void add(String address) {
+        String email = normalize(address);
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(email);
+        }
+        BloomFilter pending = building;
+        if (pending != null) {
+            pending.put(email);
+        }
+    }
+
+    private long load(BloomFilter target) {
+        long loaded = 0;
+        Long afterId = 0L;
+        List<UserRepository.EmailView> batch;
+        do {
+            batch = userRepository.findEmailsAfter(afterId, PageRequest.of(0, batchSize));
+            for (UserRepository.EmailView user : batch) {
+                target.put(normalize(user.getEmail()));
+                afterId = user.getId();
+            }
+            loaded += batch.size();
+        } while (batch.size() == batchSize);
+        return loaded;
+    }
+}
@@ -0,0 +1,31 @@
+package org.example.taskmanager.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// Endpoint "emailfilter": leitura mostra a taxa de falsos positivos, escrita reconstrói o filtro
+// (varredura completa de users). Exposto só por JMX, nunca pela web, que não tem autenticação; sem JMX
+// (perfil faststart) o filtro é refeito pelo agendamento app.email-filter.rebuild-cron.
+@Component
+@Endpoint(id = "emailfilter")
+@RequiredArgsConstructor
+public class EmailFilterEndpoint {
+
+    private final EmailExistenceFilter emailExistenceFilter;
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        return Map.of("observedFalsePositiveRate", emailExistenceFilter.observedFalsePositiveRate());
+    }
+
+    @WriteOperation
+    public Map<String, Object> rebuild() {
+        emailExistenceFilter.rebuild();
+        return status();
+    }
+}
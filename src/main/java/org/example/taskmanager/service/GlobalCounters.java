@@ -0,0 +1,174 @@
+package org.example.taskmanager.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.taskmanager.datasource.ShardRouter;
+import org.example.taskmanager.entity.Activity;
+import org.example.taskmanager.entity.Progress;
+import org.example.taskmanager.event.ActivityChangedEvent;
+import org.example.taskmanager.event.ChangeType;
+import org.example.taskmanager.event.ProgressChangedEvent;
+import org.example.taskmanager.event.UserChangedEvent;
+import org.example.taskmanager.repository.ActivityRepository;
+import org.example.taskmanager.repository.ProgressArchiveRepository;
+import org.example.taskmanager.repository.ProgressRepository;
+import org.example.taskmanager.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Contadores globais em memória: semeados do banco na subida, atualizados após o commit
+// de cada alteração e reconciliados periodicamente (corrige alterações de outras instâncias
+// e mudanças de frequência de atividades com progresso).
+// A reconciliação guarda o valor de cada contador antes das consultas e aplica
+// "contagem - valor anterior": eventos desta instância que chegam depois das consultas
+// somam por cima. Se algum evento chegar durante as consultas, não dá para saber se o
+// COUNT já o incluiu, então a reconciliação é repetida; depois de RECONCILE_ATTEMPTS
+// tentativas sob carga contínua ela é aplicada mesmo assim e esses eventos podem ficar
+// contados em dobro até a próxima.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GlobalCounters {
+
+    private final ProgressRepository progressRepository;
+    private final ProgressArchiveRepository progressArchiveRepository;
+    private final ActivityRepository activityRepository;
+    private final UserRepository userRepository;
+    private final ShardRouter shardRouter;
+
+    private static final int RECONCILE_ATTEMPTS = 3;
+
+    // Desligado no perfil faststart: a primeira reconciliação fica para o agendamento
+    @Value("${app.counters.reconcile-on-startup:true}")
+    private boolean reconcileOnStartup;
+
+    private final Map<Progress.Status, LongAdder> progressByStatus = adders(Progress.Status.class);
+    private final Map<Activity.Frequency, LongAdder> progressByFrequency = adders(Activity.Frequency.class);
+    private final LongAdder users = new LongAdder();
+    private final LongAdder activeActivities = new LongAdder();
+    // Eventos aplicados por esta instância, para detectar alterações durante a reconciliação
+    private final LongAdder changes = new LongAdder();
+
+    public long progressCount(Progress.Status status) {
+        return progressByStatus.get(status).sum();
+    }
+
+    public long progressCount(Activity.Frequency frequency) {
+        return progressByFrequency.get(frequency).sum();
+    }
+
+    public long userCount() {
+        return users.sum();
+    }
+
+    public long activeActivityCount() {
+        return activeActivities.sum();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        if (reconcileOnStartup) {
+            reconcile();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.counters.initial-delay:${app.counters.reconcile-interval:600000}}",
+            fixedDelayString = "${app.counters.reconcile-interval:600000}")
+    public void reconcile() {
+        for (int attempt = 1; attempt <= RECONCILE_ATTEMPTS; attempt++) {
+            long changesBefore = changes.sum();
+            Map<LongAdder, Long> before = snapshot();
+            Map<LongAdder, Long> counted = count();
+
+            if (changes.sum() == changesBefore || attempt == RECONCILE_ATTEMPTS) {
+                counted.forEach((adder, value) -> adder.add(value - before.get(adder)));
+                log.debug("Contadores globais reconciliados (tentativa {})", attempt);
+                return;
+            }
+        }
+    }
+
+    private Map<LongAdder, Long> count() {
+        Map<Progress.Status, Long> byStatus = new EnumMap<>(Progress.Status.class);
+        Map<Activity.Frequency, Long> byFrequency = new EnumMap<>(Activity.Frequency.class);
+
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            shardRouter.onShard(shard, () -> {
+                merge(byStatus, progressRepository.countGroupByStatus(), Progress.Status.class);
+                merge(byFrequency, progressRepository.countGroupByFrequency(), Activity.Frequency.class);
+                merge(byStatus, progressArchiveRepository.countGroupByStatus(), Progress.Status.class);
+                merge(byFrequency, progressArchiveRepository.countGroupByFrequency(), Activity.Frequency.class);
+                return null;
+            });
+        }
+
+        Map<LongAdder, Long> counted = new IdentityHashMap<>();
+        progressByStatus.forEach((status, adder) -> counted.put(adder, byStatus.getOrDefault(status, 0L)));
+        progressByFrequency.forEach((frequency, adder) ->
+                counted.put(adder, byFrequency.getOrDefault(frequency, 0L)));
+        counted.put(users, shardRouter.sum(userRepository::count));
+        counted.put(activeActivities, shardRouter.sum(activityRepository::countByActiveTrue));
+        return counted;
+    }
+
+    private Map<LongAdder, Long> snapshot() {
+        Map<LongAdder, Long> values = new IdentityHashMap<>();
+        progressByStatus.values().forEach(adder -> values.put(adder, adder.sum()));
+        progressByFrequency.values().forEach(adder -> values.put(adder, adder.sum()));
+        values.put(users, users.sum());
+        values.put(activeActivities, activeActivities.sum());
+        return values;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProgressChanged(ProgressChangedEvent event) {
+        long delta = switch (event.type()) {
+            case CREATED -> 1;
+            case DELETED -> -1;
+            case UPDATED -> 0;
+        };
+        progressByStatus.get(event.status()).add(delta);
+        progressByFrequency.get(event.frequency()).add(delta);
+        changes.increment();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onActivityChanged(ActivityChangedEvent event) {
+        if (event.active() != event.wasActive()) {
+            activeActivities.add(event.active() ? 1 : -1);
+            changes.increment();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.type() == ChangeType.CREATED) {
+            users.increment();
+            changes.increment();
+        }
+    }
+
+    private static <E extends Enum<E>> void merge(Map<E, Long> totals, List<Object[]> rows, Class<E> type) {
+        for (Object[] row : rows) {
+            totals.merge(type.cast(row[0]), ((Number) row[1]).longValue(), Long::sum);
+        }
+    }
+
+    private static <E extends Enum<E>> Map<E, LongAdder> adders(Class<E> type) {
+        Map<E, LongAdder> map = new EnumMap<>(type);
+        for (E value : type.getEnumConstants()) {
+            map.put(value, new LongAdder());
+        }
+        return map;
+    }
+}
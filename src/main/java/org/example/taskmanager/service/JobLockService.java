@@ -0,0 +1,68 @@
+package org.example.taskmanager.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.taskmanager.datasource.ShardRouter;
+import org.example.taskmanager.repository.JobLockRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+// Execução única de jobs agendados quando várias instâncias rodam o mesmo cron: só quem pega a
+// trava no shard 0 executa, as demais pulam. lockAtMostFor limita a trava de uma instância que
+// caiu no meio; lockAtLeastFor segura a trava depois do fim para que uma instância com o relógio
+// um pouco atrasado não rode o mesmo disparo de novo.
+@Slf4j
+@Service
+public class JobLockService {
+
+    private final JobLockRepository jobLockRepository;
+    private final ShardRouter shardRouter;
+    private final String owner;
+
+    public JobLockService(JobLockRepository jobLockRepository, ShardRouter shardRouter) {
+        this.jobLockRepository = jobLockRepository;
+        this.shardRouter = shardRouter;
+        this.owner = hostName() + ":" + UUID.randomUUID();
+    }
+
+    // true quando esta instância executou o job
+    public boolean runExclusively(String name, Duration lockAtMostFor, Duration lockAtLeastFor, Runnable job) {
+        Instant start = Instant.now();
+        if (!tryLock(name, start, start.plus(lockAtMostFor))) {
+            log.info("Job {} já em execução ou executado por outra instância", name);
+            return false;
+        }
+        try {
+            job.run();
+            return true;
+        } finally {
+            Instant until = start.plus(lockAtLeastFor);
+            Instant now = Instant.now();
+            Instant releaseAt = until.isAfter(now) ? until : now;
+            shardRouter.onShard(0, () -> jobLockRepository.release(name, releaseAt, owner));
+        }
+    }
+
+    private boolean tryLock(String name, Instant now, Instant until) {
+        // A inserção que falha desfaz a própria transação; a retomada roda em outra
+        try {
+            shardRouter.onShard(0, () -> jobLockRepository.insertLock(name, until, owner));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return shardRouter.onShard(0, () -> jobLockRepository.takeOverExpired(name, until, owner, now)) == 1;
+        }
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package org.example.taskmanager.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Implementação padrão enquanto não há canal de notificação; outro canal entra como bean @Primary
+@Slf4j
+@Component
+public class LoggingDueReminderPublisher implements DueReminderPublisher {
+
+    @Override
+    public void publish(List<DueReminder> reminders) {
+        log.info("{} lembretes de atividades vencidas", reminders.size());
+    }
+}
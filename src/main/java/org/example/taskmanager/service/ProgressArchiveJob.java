@@ -0,0 +1,70 @@
+package org.example.taskmanager.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.taskmanager.datasource.ShardRouter;
+import org.example.taskmanager.repository.ProgressArchiveRepository;
+import org.example.taskmanager.repository.ProgressRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+// Move para progress_archive os meses inteiros mais antigos que o horizonte configurado,
+// mantendo "progress" pequeno para as consultas do dia a dia. Roda em uma instância só
+// (JobLockService); as demais pulam o disparo.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProgressArchiveJob {
+
+    private final ProgressRepository progressRepository;
+    private final ProgressArchiveRepository progressArchiveRepository;
+    private final ShardRouter shardRouter;
+    private final JobLockService jobLockService;
+
+    @Value("${app.archive.horizon-months:12}")
+    private int horizonMonths;
+
+    @Value("${app.archive.batch-size:1000}")
+    private int batchSize;
+
+    @Scheduled(cron = "${app.archive.cron:0 30 3 * * *}")
+    public void archive() {
+        jobLockService.runExclusively("progress-archive", Duration.ofHours(6), Duration.ofHours(1), this::archiveAll);
+    }
+
+    private void archiveAll() {
+        LocalDate before = LocalDate.now().minusMonths(horizonMonths).withDayOfMonth(1);
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            long archived = archiveBefore(shard, before);
+            if (archived > 0) {
+                log.info("Progressos anteriores a {} arquivados no shard {}: {}", before, shard, archived);
+            }
+        }
+    }
+
+    private long archiveBefore(int shard, LocalDate before) {
+        long total = 0;
+        int archived;
+        do {
+            archived = shardRouter.onShard(shard, () -> archiveBatch(before));
+            total += archived;
+        } while (archived == batchSize);
+        return total;
+    }
+
+    // Cópia e remoção na mesma transação (a do onShard): a linha nunca fica nas duas tabelas nem em nenhuma
+    private int archiveBatch(LocalDate before) {
+        List<Long> ids = progressRepository.findIdsFinishedBefore(before, PageRequest.of(0, batchSize));
+        if (!ids.isEmpty()) {
+            progressArchiveRepository.copyFromProgress(ids);
+            progressRepository.deleteByIdIn(ids);
+        }
+        return ids.size();
+    }
+}
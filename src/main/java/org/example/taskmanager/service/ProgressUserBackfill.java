@@ -0,0 +1,88 @@
+package org.example.taskmanager.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.taskmanager.datasource.ShardRouter;
+import org.example.taskmanager.repository.ProgressRepository;
+import org.example.taskmanager.repository.ProgressUserColumn;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Migração de progress.user_id: preenche linhas criadas antes da coluna existir.
+// As leituras por usuário só passam a usar a coluna (ProgressUserColumn) depois que
+// nenhum shard tem mais linhas sem user_id; até lá seguem pelo dono da atividade.
+// A verificação se repete: durante um deploy, instâncias da versão anterior ainda gravam
+// progresso sem user_id, e as leituras voltam ao dono da atividade até o backfill alcançá-las.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProgressUserBackfill implements ApplicationRunner {
+
+    private final ProgressRepository progressRepository;
+    private final ShardRouter shardRouter;
+    private final ProgressUserColumn progressUserColumn;
+    private final JobLockService jobLockService;
+
+    @Value("${app.progress.backfill-batch-size:5000}")
+    private int batchSize;
+
+    // Desligado no perfil faststart: a migração já deve ter rodado em uma subida normal.
+    // A verificação de linhas sem user_id continua, para escolher o caminho das leituras,
+    // e as linhas que aparecerem depois são preenchidas pela verificação periódica.
+    @Value("${app.progress.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!shardRouter.anyMatch(progressRepository::existsByUserIdIsNull)) {
+            progressUserColumn.markBackfilled();
+            return;
+        }
+        if (!backfillOnStartup) {
+            log.warn("Há progressos sem user_id e o backfill está desligado; consultas por usuário seguem pelo dono da atividade");
+            return;
+        }
+        backfill();
+    }
+
+    // Uma consulta por shard (user_id IS NULL usa o índice de user_id); só uma instância preenche
+    @Scheduled(initialDelayString = "${app.progress.backfill-check-interval:60000}",
+            fixedDelayString = "${app.progress.backfill-check-interval:60000}")
+    public void recheck() {
+        if (!shardRouter.anyMatch(progressRepository::existsByUserIdIsNull)) {
+            progressUserColumn.markBackfilled();
+            return;
+        }
+        if (progressUserColumn.isBackfilled()) {
+            log.warn("Progressos novos sem user_id (instância da versão anterior?); consultas por usuário voltam ao dono da atividade");
+            progressUserColumn.markPending();
+        }
+        jobLockService.runExclusively("progress-user-backfill", Duration.ofMinutes(30), Duration.ZERO, this::backfill);
+    }
+
+    private void backfill() {
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            long total = 0;
+            int updated;
+            do {
+                updated = shardRouter.onShard(shard, () -> progressRepository.backfillUserId(batchSize));
+                total += updated;
+            } while (updated == batchSize);
+
+            if (total > 0) {
+                log.info("Backfill de progress.user_id no shard {}: {} linhas", shard, total);
+            }
+        }
+
+        if (shardRouter.anyMatch(progressRepository::existsByUserIdIsNull)) {
+            log.warn("Ainda há progressos sem user_id; consultas por usuário seguem pelo dono da atividade");
+        } else {
+            progressUserColumn.markBackfilled();
+        }
+    }
+}
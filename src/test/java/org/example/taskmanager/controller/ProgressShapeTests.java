@@ -0,0 +1,167 @@
+package org.example.taskmanager.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.example.taskmanager.entity.Activity;
+import org.example.taskmanager.entity.Progress;
+import org.example.taskmanager.entity.ProgressArchive;
+import org.example.taskmanager.entity.User;
+import org.example.taskmanager.repository.ActivityRepository;
+import org.example.taskmanager.repository.ProgressArchiveRepository;
+import org.example.taskmanager.repository.ProgressRepository;
+import org.example.taskmanager.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// shape=columnar e Accept: application/cbor devem carregar exatamente os mesmos dados da lista de objetos
+// em JSON, nas listagens por usuário e por período (inclusive progresso arquivado).
+@ActiveProfiles("loadtest")
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:progressshape;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1",
+        "jakarta.persistence.jdbc.url=jdbc:h2:mem:progressshape;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1"
+})
+class ProgressShapeTests {
+
+    private static final LocalDate TODAY = LocalDate.now();
+    private static final MediaType CBOR = MediaType.valueOf("application/cbor");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private ProgressRepository progressRepository;
+
+    @Autowired
+    private ProgressArchiveRepository progressArchiveRepository;
+
+    private List<String> urls;
+
+    @BeforeEach
+    void setUp() {
+        progressArchiveRepository.deleteAll();
+        progressRepository.deleteAll();
+        activityRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User user = user("shape@example.com");
+        Activity reading = activity(user, "Leitura");
+        Activity running = activity(user, "Corrida");
+        for (int day = 0; day < 20; day++) {
+            progress(reading, day, Progress.Status.FINISHED);
+            progress(running, day, day % 3 == 0 ? Progress.Status.STARTED : Progress.Status.FINISHED);
+        }
+        progressArchiveRepository.save(new ProgressArchive(1_000_001L, TODAY.minusDays(400), Progress.Status.FINISHED,
+                reading.getId(), user.getId()));
+
+        urls = List.of("/api/progress/user/" + user.getId(),
+                "/api/progress/date-range?start=" + TODAY.minusDays(500) + "&finish=" + TODAY);
+    }
+
+    @Test
+    void columnarRoundTripsToTheObjectList() throws Exception {
+        for (String url : urls) {
+            JsonNode list = objectMapper.readTree(json(url));
+            JsonNode columnar = objectMapper.readTree(json(url + separator(url) + "shape=columnar"));
+
+            assertThat(list).hasSize(41);
+            assertThat(rows(columnar)).as(url).isEqualTo(list);
+            // Cada título aparece uma vez no dicionário, não uma vez por linha
+            assertThat(columnar.get("activities")).hasSize(2);
+            assertThat(json(url + separator(url) + "shape=columnar").length()).isLessThan(json(url).length());
+        }
+    }
+
+    @Test
+    void cborDecodesToTheSamePayload() throws Exception {
+        CBORMapper cborMapper = new CBORMapper();
+        for (String url : urls) {
+            for (String shaped : List.of(url, url + separator(url) + "shape=columnar")) {
+                byte[] cbor = mockMvc.perform(get(shaped).accept(CBOR))
+                        .andExpect(status().isOk())
+                        .andExpect(content().contentTypeCompatibleWith(CBOR))
+                        .andReturn().getResponse().getContentAsByteArray();
+
+                assertThat(cborMapper.readTree(cbor)).as(shaped).isEqualTo(objectMapper.readTree(json(shaped)));
+            }
+        }
+    }
+
+    // Remonta a lista de objetos a partir das colunas
+    private ArrayNode rows(JsonNode columnar) {
+        ArrayNode rows = objectMapper.createArrayNode();
+        for (int i = 0; i < columnar.get("ids").size(); i++) {
+            JsonNode activityId = columnar.get("activityIds").get(i);
+            ObjectNode row = rows.addObject();
+            row.set("id", columnar.get("ids").get(i));
+            row.set("finishDate", columnar.get("finishDates").get(i));
+            row.set("status", columnar.get("statuses").get(columnar.get("statusCodes").get(i).asInt()));
+            row.set("activityId", activityId);
+            row.set("activityTitle", columnar.get("activities").get(activityId.asText()));
+        }
+        return rows;
+    }
+
+    private String json(String url) throws Exception {
+        return mockMvc.perform(get(url).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private static String separator(String url) {
+        return url.contains("?") ? "&" : "?";
+    }
+
+    private User user(String email) {
+        User user = new User();
+        user.setName(email);
+        user.setEmail(email);
+        user.setHashPassword("x");
+        return userRepository.save(user);
+    }
+
+    private Activity activity(User user, String title) {
+        Activity activity = new Activity();
+        activity.setTitle(title);
+        activity.setDescription(title);
+        activity.setFrequency(Activity.Frequency.DAILY);
+        activity.setInitDate(TODAY.minusYears(2));
+        activity.setActive(true);
+        activity.setUser(user);
+        return activityRepository.save(activity);
+    }
+
+    private void progress(Activity activity, int daysAgo, Progress.Status status) {
+        Progress progress = new Progress();
+        progress.setActivity(activity);
+        progress.setFinishDate(TODAY.minusDays(daysAgo));
+        progress.setStatus(status);
+        progressRepository.save(progress);
+    }
+}
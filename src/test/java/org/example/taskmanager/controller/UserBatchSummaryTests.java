@@ -0,0 +1,171 @@
+package org.example.taskmanager.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.taskmanager.entity.Activity;
+import org.example.taskmanager.entity.Progress;
+import org.example.taskmanager.entity.ProgressArchive;
+import org.example.taskmanager.entity.User;
+import org.example.taskmanager.repository.ActivityRepository;
+import org.example.taskmanager.repository.ProgressArchiveRepository;
+import org.example.taskmanager.repository.ProgressRepository;
+import org.example.taskmanager.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// /api/user/batch deve devolver, por usuário, os mesmos números dos endpoints individuais.
+// Vários shards: ver ShardFanOutTests.
+// Usa o H2 em modo MySQL do perfil da suíte de carga, num banco separado.
+@ActiveProfiles("loadtest")
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:usersummary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1",
+        "jakarta.persistence.jdbc.url=jdbc:h2:mem:usersummary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1"
+})
+class UserBatchSummaryTests {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private ProgressRepository progressRepository;
+
+    @Autowired
+    private ProgressArchiveRepository progressArchiveRepository;
+
+    private User busy;
+    private User idle;
+    private User partial;
+
+    @BeforeEach
+    void setUp() {
+        progressArchiveRepository.deleteAll();
+        progressRepository.deleteAll();
+        activityRepository.deleteAll();
+        userRepository.deleteAll();
+
+        busy = user("busy@example.com");
+        idle = user("idle@example.com");
+        partial = user("partial@example.com");
+
+        Activity reading = activity(busy, "Leitura", true);
+        Activity running = activity(busy, "Corrida", false);
+        progress(reading, 0, Progress.Status.FINISHED);
+        progress(reading, 1, Progress.Status.FINISHED);
+        progress(running, 0, Progress.Status.FINISHED);
+        progress(running, 1, Progress.Status.STARTED);
+        archived(1_000_001L, reading, 400, Progress.Status.FINISHED);
+        archived(1_000_002L, reading, 401, Progress.Status.FINISHED);
+
+        // 1 de 3 concluído: 33,33%, não 33
+        Activity cooking = activity(partial, "Cozinhar", true);
+        progress(cooking, 0, Progress.Status.FINISHED);
+        progress(cooking, 1, Progress.Status.STARTED);
+        progress(cooking, 2, Progress.Status.STARTED);
+
+        activity(idle, "Meditar", true);
+    }
+
+    @Test
+    void batchMatchesPerUserEndpoints() throws Exception {
+        long missing = partial.getId() + 1000;
+        JsonNode batch = read("/api/user/batch?ids=" + partial.getId() + "," + missing + "," + busy.getId() + ","
+                + idle.getId());
+
+        // Ordem pedida, sem o id inexistente
+        assertThat(batch.fieldNames()).toIterable().containsExactly(
+                String.valueOf(partial.getId()), String.valueOf(busy.getId()), String.valueOf(idle.getId()));
+
+        for (User user : List.of(busy, idle, partial)) {
+            JsonNode summary = batch.get(String.valueOf(user.getId()));
+            JsonNode profile = read("/api/user/" + user.getId() + "/profile-with-activities");
+            JsonNode stats = read("/api/progress/user/" + user.getId() + "/stats");
+
+            assertThat(summary.get("totalActivities").asLong()).isEqualTo(profile.get("totalActivities").asLong());
+            assertThat(summary.get("activeActivities").asLong()).isEqualTo(profile.get("activeActivities").asLong());
+            assertThat(summary.get("totalFinished").asLong()).isEqualTo(stats.get("totalFinished").asLong());
+            assertThat(summary.get("totalStarted").asLong()).isEqualTo(stats.get("totalStarted").asLong());
+            assertThat(summary.get("completionRate").asDouble()).isEqualTo(stats.get("completionRate").asDouble());
+        }
+
+        JsonNode busySummary = batch.get(String.valueOf(busy.getId()));
+        assertThat(busySummary.get("totalActivities").asLong()).isEqualTo(2);
+        assertThat(busySummary.get("activeActivities").asLong()).isEqualTo(1);
+        assertThat(busySummary.get("totalFinished").asLong()).isEqualTo(5);
+        assertThat(busySummary.get("totalStarted").asLong()).isEqualTo(1);
+        assertThat(busySummary.get("completionRate").asDouble()).isEqualTo(83.33);
+        assertThat(batch.get(String.valueOf(partial.getId())).get("completionRate").asDouble()).isEqualTo(33.33);
+        assertThat(batch.get(String.valueOf(idle.getId())).get("completionRate").asDouble()).isZero();
+    }
+
+    @Test
+    void rejectsEmptyAndOversizedBatches() throws Exception {
+        mockMvc.perform(get("/api/user/batch").param("ids", "")).andExpect(status().isBadRequest());
+
+        String tooMany = String.join(",", LongStream.rangeClosed(1, 101)
+                .mapToObj(String::valueOf).toList());
+        mockMvc.perform(get("/api/user/batch").param("ids", tooMany)).andExpect(status().isBadRequest());
+    }
+
+    private JsonNode read(String url) throws Exception {
+        String body = mockMvc.perform(get(url)).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private User user(String email) {
+        User user = new User();
+        user.setName(email);
+        user.setEmail(email);
+        user.setHashPassword("x");
+        return userRepository.save(user);
+    }
+
+    private Activity activity(User user, String title, boolean active) {
+        Activity activity = new Activity();
+        activity.setTitle(title);
+        activity.setDescription(title);
+        activity.setFrequency(Activity.Frequency.DAILY);
+        activity.setInitDate(TODAY.minusYears(2));
+        activity.setActive(active);
+        activity.setUser(user);
+        return activityRepository.save(activity);
+    }
+
+    private void progress(Activity activity, int daysAgo, Progress.Status status) {
+        Progress progress = new Progress();
+        progress.setActivity(activity);
+        progress.setFinishDate(TODAY.minusDays(daysAgo));
+        progress.setStatus(status);
+        progressRepository.save(progress);
+    }
+
+    private void archived(Long id, Activity activity, int daysAgo, Progress.Status status) {
+        progressArchiveRepository.save(new ProgressArchive(id, TODAY.minusDays(daysAgo), status, activity.getId(),
+                activity.getUser().getId()));
+    }
+}
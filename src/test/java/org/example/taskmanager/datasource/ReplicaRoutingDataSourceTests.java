@@ -0,0 +1,98 @@
+package org.example.taskmanager.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Dois bancos H2 locais fazem o papel de primário e réplica
+class ReplicaRoutingDataSourceTests {
+
+    private DriverManagerDataSource primary;
+    private DriverManagerDataSource replica;
+    private ReplicaPool replicaPool;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readTransaction;
+    private TransactionTemplate writeTransaction;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+
+        replicaPool = new ReplicaPool(List.of(new ReplicaPool.Replica("replica-0", replica)),
+                Duration.ofSeconds(10), "", "");
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(Duration.ofSeconds(5));
+        DataSource dataSource = new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primary, replicaPool, tracker));
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+        writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        UserRoutingContext.clear();
+        new JdbcTemplate(primary).execute("DROP ALL OBJECTS");
+        new JdbcTemplate(replica).execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void readOnlyTransactionGoesToReplica() {
+        assertThat(readTransaction.execute(status -> currentNode())).isEqualTo("replica");
+    }
+
+    @Test
+    void writeTransactionGoesToPrimary() {
+        assertThat(writeTransaction.execute(status -> currentNode())).isEqualTo("primary");
+    }
+
+    @Test
+    void readAfterOwnWriteSticksToPrimary() {
+        UserRoutingContext.set(1L);
+        writeTransaction.executeWithoutResult(status ->
+                jdbcTemplate.update("UPDATE node SET name = name"));
+
+        assertThat(readTransaction.execute(status -> currentNode())).isEqualTo("primary");
+
+        UserRoutingContext.set(2L);
+        assertThat(readTransaction.execute(status -> currentNode())).isEqualTo("replica");
+    }
+
+    @Test
+    void laggingReplicaFallsBackToPrimary() {
+        ReplicaPool lagging = new ReplicaPool(List.of(new ReplicaPool.Replica("replica-0", replica)),
+                Duration.ofSeconds(10), "SELECT 3600 AS replica_lag", "replica_lag");
+        lagging.checkHealth();
+        assertThat(lagging.nextHealthyKey()).isEmpty();
+
+        replicaPool.checkHealth();
+        assertThat(replicaPool.nextHealthyKey()).contains("replica-0");
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static DriverManagerDataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE node (name VARCHAR(20))");
+        jdbc.update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,177 @@
+package org.example.taskmanager.datasource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.taskmanager.entity.Activity;
+import org.example.taskmanager.entity.Progress;
+import org.example.taskmanager.entity.User;
+import org.example.taskmanager.repository.ActivityRepository;
+import org.example.taskmanager.repository.ProgressRepository;
+import org.example.taskmanager.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Leitura seguida de escrita na mesma requisição, pelo JPA: a leitura vai para a réplica e a escrita
+// tem que ir para o primário. A "réplica" é o mesmo banco H2 acessado por um usuário que só tem SELECT,
+// então uma escrita roteada para ela falha (500) em vez de passar despercebida.
+@ActiveProfiles("loadtest")
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReplicaRoutingJpaTests.URL
+                + ";INIT=CREATE USER IF NOT EXISTS \"READER\" PASSWORD 'reader'\\\\;GRANT SELECT ON SCHEMA PUBLIC TO \"READER\"",
+        "jakarta.persistence.jdbc.url=" + ReplicaRoutingJpaTests.URL,
+        "app.datasource.replicas.enabled=true",
+        "app.datasource.replicas.nodes[0].url=" + ReplicaRoutingJpaTests.URL,
+        "app.datasource.replicas.nodes[0].username=READER",
+        "app.datasource.replicas.nodes[0].password=reader",
+        "app.datasource.replicas.lag-query="
+})
+class ReplicaRoutingJpaTests {
+
+    static final String URL =
+            "jdbc:h2:mem:replicarouting;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1";
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private ProgressRepository progressRepository;
+
+    @Autowired
+    private ReplicaPool replicaPool;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User user;
+    private Activity activity;
+
+    @BeforeEach
+    void setUp() {
+        replicaPool.checkHealth();
+        // Usuário novo a cada teste: sem escrita recente, as leituras dele não ficam presas ao primário
+        user = user();
+        activity = activity(user);
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplica() {
+        TransactionTemplate read = new TransactionTemplate(transactionManager);
+        read.setReadOnly(true);
+        TransactionTemplate write = new TransactionTemplate(transactionManager);
+
+        assertThat(read.execute(status -> currentUser())).isEqualToIgnoringCase("reader");
+        assertThat(write.execute(status -> currentUser())).isEqualToIgnoringCase("sa");
+    }
+
+    @Test
+    void progressCreatedAfterReadingTheActivity() throws Exception {
+        mockMvc.perform(post("/api/progress/create")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of("activityId", activity.getId(), "finishDate", TODAY.toString()))))
+                .andExpect(status().isCreated());
+
+        assertThat(progressRepository.findByActivityIdAndFinishDate(activity.getId(), TODAY)).isPresent();
+    }
+
+    @Test
+    void progressDeletedAfterReadingIt() throws Exception {
+        Progress progress = new Progress();
+        progress.setActivity(activity);
+        progress.setFinishDate(TODAY);
+        progress.setStatus(Progress.Status.FINISHED);
+        Long progressId = progressRepository.save(progress).getId();
+
+        mockMvc.perform(delete("/api/progress/" + progressId)).andExpect(status().isOk());
+
+        assertThat(progressRepository.findById(progressId)).isEmpty();
+    }
+
+    @Test
+    void activityUpdatedAndDeletedAfterReadingIt() throws Exception {
+        String path = "/api/activities/" + activity.getId() + "/user/" + user.getId();
+
+        mockMvc.perform(put(path)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of("title", "Corrida"))))
+                .andExpect(status().isOk());
+        assertThat(activityRepository.findById(activity.getId())).get()
+                .extracting(Activity::getTitle).isEqualTo("Corrida");
+
+        mockMvc.perform(delete(path)).andExpect(status().isOk());
+        assertThat(activityRepository.findById(activity.getId())).get()
+                .extracting(Activity::getActive).isEqualTo(false);
+    }
+
+    @Test
+    void profileUpdatedAfterReadingTheUser() throws Exception {
+        mockMvc.perform(put("/api/user/" + user.getId() + "/profile")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of("name", "Novo nome"))))
+                .andExpect(status().isOk());
+
+        assertThat(userRepository.findById(user.getId())).get()
+                .extracting(User::getName).isEqualTo("Novo nome");
+    }
+
+    private String currentUser() {
+        return new JdbcTemplate(dataSource).queryForObject("SELECT CURRENT_USER", String.class);
+    }
+
+    private String json(Map<String, Object> body) throws Exception {
+        return objectMapper.writeValueAsString(body);
+    }
+
+    private User user() {
+        User user = new User();
+        String email = UUID.randomUUID() + "@example.com";
+        user.setName(email);
+        user.setEmail(email);
+        user.setHashPassword("x");
+        return userRepository.save(user);
+    }
+
+    private Activity activity(User user) {
+        Activity activity = new Activity();
+        activity.setTitle("Leitura");
+        activity.setDescription("Leitura");
+        activity.setFrequency(Activity.Frequency.DAILY);
+        activity.setInitDate(TODAY.minusYears(1));
+        activity.setActive(true);
+        activity.setUser(user);
+        return activityRepository.save(activity);
+    }
+}
@@ -0,0 +1,212 @@
+package org.example.taskmanager.datasource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Fan-out entre shards numa requisição web: dois bancos H2 fazem o papel de shards. O shard i gera
+// ids i + 1, i + 3, ... (identity com incremento 2), como o auto_increment_offset faz no MySQL.
+@ActiveProfiles("loadtest")
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ShardFanOutTests.SHARD_0,
+        "jakarta.persistence.jdbc.url=" + ShardFanOutTests.SHARD_0,
+        "app.sharding.enabled=true",
+        "app.sharding.session-auto-increment=false",
+        "app.sharding.legacy-max-id=0",
+        "app.sharding.nodes[0].url=" + ShardFanOutTests.SHARD_0,
+        "app.sharding.nodes[0].username=sa",
+        "app.sharding.nodes[0].password=",
+        "app.sharding.nodes[1].url=" + ShardFanOutTests.SHARD_1,
+        "app.sharding.nodes[1].username=sa",
+        "app.sharding.nodes[1].password="
+})
+class ShardFanOutTests {
+
+    static final String SHARD_0 =
+            "jdbc:h2:mem:shardfanout0;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1";
+    static final String SHARD_1 =
+            "jdbc:h2:mem:shardfanout1;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1";
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    // O ddl-auto só cria o schema no shard 0: copia para o shard 1 antes das tarefas da subida
+    @TestConfiguration
+    static class ShardSchema {
+
+        @Bean
+        ShardSchemaCopy shardSchemaCopy(EntityManagerFactory entityManagerFactory) {
+            return new ShardSchemaCopy();
+        }
+    }
+
+    static class ShardSchemaCopy {
+
+        ShardSchemaCopy() {
+            shard(0).queryForList("SCRIPT NODATA NOPASSWORDS NOSETTINGS", String.class).stream()
+                    .filter(statement -> !statement.startsWith("--"))
+                    .forEach(shard(1)::execute);
+
+            for (int shard = 0; shard < 2; shard++) {
+                JdbcTemplate jdbc = shard(shard);
+                for (Map<String, Object> column : jdbc.queryForList("SELECT table_name, column_name " +
+                        "FROM information_schema.columns WHERE LOWER(table_schema) = 'public' AND is_identity = 'YES'")) {
+                    jdbc.execute("ALTER TABLE \"" + column.get("table_name") + "\" ALTER COLUMN \""
+                            + column.get("column_name") + "\" RESTART WITH " + (shard + 1) + " SET INCREMENT BY 2");
+                }
+            }
+        }
+    }
+
+    @Test
+    void newUsersAreSpreadAcrossShards() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            ids.add(register(email()).get("id").asLong());
+        }
+
+        assertThat(ids).extracting(shardRouter::shardFor).containsOnly(0, 1);
+        for (Long id : ids) {
+            assertThat(shard(shardRouter.shardFor(id))
+                    .queryForObject("SELECT COUNT(*) FROM user WHERE user_id = ?", Long.class, id)).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void emailLookupsSeeEveryShard() throws Exception {
+        String email = registerOnShard(1);
+
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of("email", email, "password", "secret123"))))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/user/email/" + email)).andExpect(status().isOk());
+
+        // Usuário antigo do shard 1, de antes do diretório de e-mails: só a busca nos shards o encontra
+        String legacy = email();
+        shard(1).update("INSERT INTO user (user_id, name, email, hash_password) VALUES (?, ?, ?, ?)",
+                1_000_002L, legacy, legacy, "x");
+        mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of("name", "Outro", "email", legacy, "password", "secret123"))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void dateRangeGathersEveryShardOnce() throws Exception {
+        List<Long> progressIds = new ArrayList<>();
+        for (int shard = 0; shard < 2; shard++) {
+            String email = registerOnShard(shard);
+            long userId = read(get("/api/user/email/" + email)).get("id").asLong();
+            long activityId = read(mockMvc.perform(post("/api/activities/user/" + userId)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(json(Map.of("title", "Leitura", "description", "Leitura", "frequency", "DAILY",
+                            "startDate", TODAY.minusDays(10).toString()))))).get("id").asLong();
+            progressIds.add(read(mockMvc.perform(post("/api/progress/create")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(json(Map.of("activityId", activityId, "finishDate", TODAY.toString()))))).get("id").asLong());
+        }
+
+        JsonNode range = read(get("/api/progress/date-range")
+                .param("start", TODAY.toString()).param("finish", TODAY.toString()));
+
+        List<Long> returned = new ArrayList<>();
+        range.forEach(progress -> returned.add(progress.get("id").asLong()));
+        assertThat(returned).containsAll(progressIds).doesNotHaveDuplicates();
+        assertThat(progressIds).extracting(shardRouter::shardFor).containsExactly(0, 1);
+    }
+
+    @Test
+    void batchSummaryCoversEveryShard() throws Exception {
+        List<Long> userIds = new ArrayList<>();
+        for (int shard = 0; shard < 2; shard++) {
+            long userId = read(get("/api/user/email/" + registerOnShard(shard))).get("id").asLong();
+            for (String title : List.of("Leitura", "Corrida")) {
+                read(mockMvc.perform(post("/api/activities/user/" + userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of("title", title, "description", title, "frequency", "DAILY",
+                                "startDate", TODAY.toString())))));
+            }
+            userIds.add(userId);
+        }
+
+        JsonNode batch = read(get("/api/user/batch")
+                .param("ids", userIds.get(0) + "," + userIds.get(1)));
+
+        assertThat(userIds).extracting(shardRouter::shardFor).containsExactly(0, 1);
+        for (Long userId : userIds) {
+            assertThat(batch.get(String.valueOf(userId)).get("totalActivities").asLong()).isEqualTo(2);
+        }
+    }
+
+    // Cadastra usuários até um cair no shard pedido (o rodízio é compartilhado entre os testes)
+    private String registerOnShard(int shard) throws Exception {
+        for (int attempt = 0; attempt < 4; attempt++) {
+            String email = email();
+            if (shardRouter.shardFor(register(email).get("id").asLong()) == shard) {
+                return email;
+            }
+        }
+        throw new AssertionError("Nenhum usuário novo caiu no shard " + shard);
+    }
+
+    private JsonNode register(String email) throws Exception {
+        return read(mockMvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json(Map.of("name", email, "email", email, "password", "secret123")))));
+    }
+
+    private JsonNode read(RequestBuilder request) throws Exception {
+        return read(mockMvc.perform(request));
+    }
+
+    private JsonNode read(ResultActions result) throws Exception {
+        String body = result.andExpect(status().is2xxSuccessful()).andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private String json(Map<String, Object> body) throws Exception {
+        return objectMapper.writeValueAsString(body);
+    }
+
+    private static String email() {
+        return UUID.randomUUID() + "@example.com";
+    }
+
+    private static JdbcTemplate shard(int shard) {
+        return new JdbcTemplate(new DriverManagerDataSource(shard == 0 ? SHARD_0 : SHARD_1, "sa", ""));
+    }
+}
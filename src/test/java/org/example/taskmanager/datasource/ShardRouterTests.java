@@ -0,0 +1,133 @@
+package org.example.taskmanager.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class ShardRouterTests {
+
+    @AfterEach
+    void tearDown() {
+        ShardContext.clear();
+    }
+
+    @Test
+    void idsFollowAutoIncrementOffset() {
+        ShardRouter router = new ShardRouter(3);
+
+        // shard i gera i + 1, i + 1 + N, i + 1 + 2N...
+        assertThat(router.shardFor(1L)).isZero();
+        assertThat(router.shardFor(2L)).isEqualTo(1);
+        assertThat(router.shardFor(3L)).isEqualTo(2);
+        assertThat(router.shardFor(4L)).isZero();
+        assertThat(router.shardFor(3_000_000_002L)).isEqualTo(1);
+    }
+
+    @Test
+    void legacyIdsStayOnFirstShard() {
+        ShardRouter router = new ShardRouter(3, 100);
+
+        assertThat(router.shardFor(2L)).isZero();
+        assertThat(router.shardFor(100L)).isZero();
+        assertThat(router.shardFor(101L)).isEqualTo(1);
+        assertThat(router.shardFor(102L)).isEqualTo(2);
+    }
+
+    @Test
+    void singleShardRoutesEverythingToShardZero() {
+        ShardRouter router = new ShardRouter(1);
+        List<Integer> visited = new ArrayList<>();
+
+        router.gather(() -> {
+            visited.add(ShardContext.get());
+            return List.of();
+        });
+
+        assertThat(router.shardFor(12345L)).isZero();
+        assertThat(visited).containsExactly(0);
+    }
+
+    @Test
+    void onShardRestoresPreviousShard() {
+        ShardRouter router = new ShardRouter(3);
+        ShardContext.set(2);
+
+        Integer inside = router.onShard(1, ShardContext::get);
+
+        assertThat(inside).isEqualTo(1);
+        assertThat(ShardContext.get()).isEqualTo(2);
+    }
+
+    @Test
+    void gatherAndSumVisitEveryShard() {
+        ShardRouter router = new ShardRouter(3);
+
+        assertThat(router.gather(() -> List.of(ShardContext.get()))).containsExactly(0, 1, 2);
+        assertThat(router.sum(() -> ShardContext.get() + 1)).isEqualTo(6);
+        assertThat(ShardContext.get()).isNull();
+    }
+
+    @Test
+    void eachShardCallRunsInANewTransaction() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        ShardRouter router = new ShardRouter(3, 0, transactionManager);
+
+        router.gather(() -> List.of(ShardContext.get()));
+
+        // Uma transação nova por shard, nunca a de quem chamou: a conexão dela já está presa a um shard
+        verify(transactionManager, times(3)).getTransaction(argThat(definition ->
+                definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    void anyMatchStopsAtFirstMatch() {
+        ShardRouter router = new ShardRouter(3);
+        List<Integer> visited = new ArrayList<>();
+
+        boolean found = router.anyMatch(() -> {
+            visited.add(ShardContext.get());
+            return ShardContext.get() == 1;
+        });
+
+        assertThat(found).isTrue();
+        assertThat(visited).containsExactly(0, 1);
+    }
+
+    @Test
+    void findFirstLeavesRequestOnMatchingShard() {
+        ShardRouter router = new ShardRouter(3);
+
+        Optional<String> result = router.findFirst(() ->
+                ShardContext.get() == 2 ? Optional.of("found") : Optional.empty());
+
+        assertThat(result).contains("found");
+        assertThat(ShardContext.get()).isEqualTo(2);
+        assertThat(new ShardRouter(3).findFirst(Optional::empty)).isEmpty();
+    }
+
+    @Test
+    void newUsersAreSpreadRoundRobin() {
+        ShardRouter router = new ShardRouter(2);
+        List<Integer> shards = new ArrayList<>();
+
+        for (int i = 0; i < 4; i++) {
+            router.routeNewUser();
+            shards.add(ShardContext.get());
+        }
+
+        assertThat(shards).containsExactly(0, 1, 0, 1);
+    }
+}
@@ -0,0 +1,180 @@
+package org.example.taskmanager.event;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.taskmanager.datasource.ShardRouter;
+import org.example.taskmanager.entity.OutboxEvent;
+import org.example.taskmanager.entity.OutboxLane;
+import org.example.taskmanager.repository.OutboxEventRepository;
+import org.example.taskmanager.repository.OutboxLaneRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.calls;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboxRelayTests {
+
+    private static final Instant CREATED = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final List<OutboxEvent> stored = new ArrayList<>();
+    private final List<List<Long>> delivered = new ArrayList<>();
+    private OutboxEventRepository eventRepository;
+    private OutboxLaneRepository laneRepository;
+    private PlatformTransactionManager transactionManager;
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxSink sink;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        eventRepository = mock(OutboxEventRepository.class);
+        laneRepository = mock(OutboxLaneRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        meterRegistry = new SimpleMeterRegistry();
+        sink = mock(OutboxSink.class);
+
+        // Tabela em memória com a mesma semântica das consultas do repositório
+        when(eventRepository.findBacklog()).thenAnswer(invocation -> backlog());
+        when(eventRepository.findByLaneOrderByIdAsc(any(), any())).thenAnswer(invocation -> {
+            Integer lane = invocation.getArgument(0);
+            Pageable page = invocation.getArgument(1);
+            return stored.stream().filter(event -> event.getLane().equals(lane))
+                    .sorted(Comparator.comparing(OutboxEvent::getId)).limit(page.getPageSize()).toList();
+        });
+        when(eventRepository.deleteByIdIn(any())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            int before = stored.size();
+            stored.removeIf(event -> ids.contains(event.getId()));
+            return before - stored.size();
+        });
+        when(laneRepository.findUnlockedById(anyInt()))
+                .thenAnswer(invocation -> Optional.of(new OutboxLane(invocation.getArgument(0), null)));
+        doAnswer(invocation -> {
+            List<OutboxEvent> batch = invocation.getArgument(0);
+            delivered.add(batch.stream().map(OutboxEvent::getId).toList());
+            return null;
+        }).when(sink).publish(anyList());
+
+        relay = new OutboxRelay(eventRepository, laneRepository, sink, new ShardRouter(1, 0, transactionManager),
+                meterRegistry, 2, 2);
+    }
+
+    @Test
+    void lanesAreDeliveredInIdOrderAcrossBatches() {
+        store(5L, 0);
+        store(1L, 0);
+        store(3L, 0);
+
+        relay.relay();
+        relay.relay();
+
+        // Lotes de 2: o mais antigo primeiro, e o segundo lote só depois do primeiro removido
+        assertThat(delivered).containsExactly(List.of(1L, 3L), List.of(5L));
+        assertThat(stored).isEmpty();
+        assertThat(meterRegistry.get("outbox.published").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    void eventsAreDeletedOnlyAfterTheSinkConfirms() throws Exception {
+        store(1L, 0);
+
+        relay.relay();
+
+        InOrder order = inOrder(sink, eventRepository, transactionManager);
+        order.verify(sink).publish(anyList());
+        order.verify(eventRepository).deleteByIdIn(List.of(1L));
+        order.verify(transactionManager, calls(1)).commit(any());
+    }
+
+    @Test
+    void failedBatchIsRedeliveredWhole() throws Exception {
+        store(1L, 0);
+        store(2L, 0);
+        doAnswer(invocation -> {
+            List<OutboxEvent> batch = invocation.getArgument(0);
+            delivered.add(batch.stream().map(OutboxEvent::getId).toList());
+            throw new IllegalStateException("broker fora do ar");
+        }).doAnswer(invocation -> {
+            List<OutboxEvent> batch = invocation.getArgument(0);
+            delivered.add(batch.stream().map(OutboxEvent::getId).toList());
+            return null;
+        }).when(sink).publish(anyList());
+
+        relay.relay();
+
+        verify(eventRepository, never()).deleteByIdIn(any());
+        verify(transactionManager).rollback(any());
+        assertThat(stored).hasSize(2);
+        assertThat(meterRegistry.get("outbox.publish.failures").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("outbox.pending").gauge().value()).isEqualTo(2);
+
+        relay.relay();
+
+        // Entrega pelo menos uma vez: o mesmo lote, na mesma ordem
+        assertThat(delivered).containsExactly(List.of(1L, 2L), List.of(1L, 2L));
+        assertThat(stored).isEmpty();
+    }
+
+    @Test
+    void laneHeldByAnotherInstanceIsSkipped() {
+        store(1L, 0);
+        store(2L, 1);
+        when(laneRepository.findUnlockedById(0)).thenReturn(Optional.empty());
+
+        relay.relay();
+
+        assertThat(delivered).containsExactly(List.of(2L));
+        assertThat(stored).extracting(OutboxEvent::getId).containsExactly(1L);
+        verify(eventRepository, never()).findByLaneOrderByIdAsc(eq(0), any());
+        assertThat(meterRegistry.get("outbox.pending").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void emptyOutboxDoesNotTouchLanes() {
+        relay.relay();
+
+        verify(laneRepository, never()).findUnlockedById(anyInt());
+        assertThat(meterRegistry.get("outbox.pending").gauge().value()).isZero();
+        assertThat(meterRegistry.get("outbox.lag.seconds").gauge().value()).isZero();
+    }
+
+    private void store(Long id, int lane) {
+        stored.add(new OutboxEvent(id, lane, "progress", id, "CREATED", 1L, "{}", CREATED));
+    }
+
+    private OutboxEventRepository.Backlog backlog() {
+        long pending = stored.size();
+        Instant oldest = stored.isEmpty() ? null : CREATED;
+        return new OutboxEventRepository.Backlog() {
+            @Override
+            public long getPending() {
+                return pending;
+            }
+
+            @Override
+            public Instant getOldest() {
+                return oldest;
+            }
+        };
+    }
+}
@@ -0,0 +1,181 @@
+package org.example.taskmanager.loadtest;
+
+import org.assertj.core.api.SoftAssertions;
+import org.example.taskmanager.service.EmailExistenceFilter;
+import org.example.taskmanager.service.GlobalCounters;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Carga com a mistura de endpoints do uso real sobre H2 em modo MySQL com massa sintética.
+// Fora do build padrão: mvn -Ploadtest test. Parâmetros por -Dloadtest.* (ver README).
+// Falha quando algum SLO é violado ou quando o p95 de um cenário piora além da tolerância
+// em relação ao relatório base informado em -Dloadtest.baseline.
+@Tag("loadtest")
+@ActiveProfiles("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ApiLoadTests {
+
+    private static final long SEED = 42;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private GlobalCounters globalCounters;
+
+    @Autowired
+    private EmailExistenceFilter emailExistenceFilter;
+
+    @Test
+    void endpointMixMeetsSlo() throws Exception {
+        int users = Integer.getInteger("loadtest.users", 200);
+        LoadTestData data = new LoadTestData(jdbcTemplate, SEED);
+        long progress = data.seed(users, Integer.getInteger("loadtest.activities-per-user", 5),
+                Integer.getInteger("loadtest.years", 2), 0.6, passwordEncoder.encode(LoadTestData.PASSWORD));
+        globalCounters.reconcile();
+        emailExistenceFilter.rebuild();
+        System.out.printf("Massa: %d usuários, %d atividades, %d progressos%n",
+                data.userIds.size(), data.activityIds.size(), progress);
+
+        int rps = Integer.getInteger("loadtest.rps", 500);
+        LoadGenerator generator = new LoadGenerator(Integer.getInteger("loadtest.client-threads", 32),
+                Integer.getInteger("loadtest.max-in-flight", 10_000), SEED);
+        List<LoadGenerator.Result> results = generator.run(scenarios(data), rps,
+                Duration.ofSeconds(Integer.getInteger("loadtest.warmup-seconds", 15)),
+                Duration.ofSeconds(Integer.getInteger("loadtest.duration-seconds", 60)));
+
+        print(results);
+        save(results, Path.of("target", "loadtest-report.properties"));
+        assertSlo(results, rps);
+    }
+
+    // Pesos aproximam o tráfego real: leituras do dia e da lista dominam, login é raro e caro (bcrypt)
+    private List<LoadGenerator.Scenario> scenarios(LoadTestData data) {
+        String base = "http://localhost:" + port;
+        // Cada check-in usa um par (atividade, data passada) sem progresso na massa, dos mais recentes
+        // para os mais antigos: datas futuras avançariam nextDueDate e distorceriam as leituras do mix
+        AtomicLong checkIns = new AtomicLong();
+
+        return List.of(
+                new LoadGenerator.Scenario("login", 5, random -> {
+                    String email = LoadTestData.email(random.nextInt(data.userIds.size()));
+                    return post(base + "/api/auth/login",
+                            "{\"email\":\"" + email + "\",\"password\":\"" + LoadTestData.PASSWORD + "\"}");
+                }),
+                new LoadGenerator.Scenario("progress-today", 25, random ->
+                        get(base + "/api/progress/user/" + anyUser(data, random) + "/today")),
+                new LoadGenerator.Scenario("check-in", 10, random -> {
+                    LoadTestData.CheckInSlot slot = data.checkInSlots.get(
+                            (int) (checkIns.getAndIncrement() % data.checkInSlots.size()));
+                    return post(base + "/api/progress/create",
+                            "{\"activityId\":" + slot.activityId() + ",\"finishDate\":\"" + slot.date() + "\"}");
+                }),
+                new LoadGenerator.Scenario("stats", 15, random ->
+                        get(base + "/api/progress/user/" + anyUser(data, random) + "/stats")),
+                new LoadGenerator.Scenario("activity-list", 30, random ->
+                        get(base + "/api/activities/user/" + anyUser(data, random))),
+                new LoadGenerator.Scenario("history", 15, random ->
+                        get(base + "/api/progress/user/" + anyUser(data, random) + "/last30days")));
+    }
+
+    private void assertSlo(List<LoadGenerator.Result> results, int rps) throws IOException {
+        double p95Ms = Double.parseDouble(System.getProperty("loadtest.slo.p95-ms", "250"));
+        double p99Ms = Double.parseDouble(System.getProperty("loadtest.slo.p99-ms", "500"));
+        double maxErrorRate = Double.parseDouble(System.getProperty("loadtest.slo.max-error-rate", "0.01"));
+        double minThroughput = rps * Double.parseDouble(System.getProperty("loadtest.slo.min-throughput-ratio", "0.95"));
+        double tolerance = Double.parseDouble(System.getProperty("loadtest.baseline-tolerance", "0.20"));
+        String baselinePath = System.getProperty("loadtest.baseline");
+        Properties baseline = baselinePath == null ? null : load(Path.of(baselinePath));
+
+        SoftAssertions softly = new SoftAssertions();
+        for (LoadGenerator.Result result : results) {
+            softly.assertThat(result.p95()).as("p95 de %s (ms)", result.name()).isLessThanOrEqualTo(p95Ms);
+            softly.assertThat(result.errorRate()).as("taxa de erro de %s", result.name())
+                    .isLessThanOrEqualTo(maxErrorRate);
+            if (baseline != null && baseline.containsKey(result.name() + ".p95")) {
+                double previous = Double.parseDouble(baseline.getProperty(result.name() + ".p95"));
+                softly.assertThat(result.p95()).as("p95 de %s comparado ao relatório base (%.1f ms)",
+                        result.name(), previous).isLessThanOrEqualTo(previous * (1 + tolerance));
+            }
+        }
+        LoadGenerator.Result total = results.get(results.size() - 1);
+        softly.assertThat(total.p99()).as("p99 total (ms)").isLessThanOrEqualTo(p99Ms);
+        softly.assertThat(total.throughput()).as("vazão total (req/s)").isGreaterThanOrEqualTo(minThroughput);
+        softly.assertAll();
+    }
+
+    private static void print(List<LoadGenerator.Result> results) {
+        System.out.printf("%-16s %9s %8s %9s %9s %9s %9s %9s%n",
+                "cenário", "reqs", "erros", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (LoadGenerator.Result r : results) {
+            System.out.printf("%-16s %9d %8d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    r.name(), r.requests(), r.errors(), r.throughput(), r.p50(), r.p95(), r.p99(), r.max());
+        }
+    }
+
+    // Mesmo formato lido por -Dloadtest.baseline, para usar uma execução aprovada como referência
+    private static void save(List<LoadGenerator.Result> results, Path file) throws IOException {
+        Properties report = new Properties();
+        for (LoadGenerator.Result r : results) {
+            report.setProperty(r.name() + ".requests", String.valueOf(r.requests()));
+            report.setProperty(r.name() + ".error-rate", String.valueOf(r.errorRate()));
+            report.setProperty(r.name() + ".throughput", String.valueOf(r.throughput()));
+            report.setProperty(r.name() + ".p50", String.valueOf(r.p50()));
+            report.setProperty(r.name() + ".p95", String.valueOf(r.p95()));
+            report.setProperty(r.name() + ".p99", String.valueOf(r.p99()));
+        }
+        Files.createDirectories(file.getParent());
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            report.store(writer, "Relatório de carga");
+        }
+    }
+
+    private static Properties load(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+        }
+        return properties;
+    }
+
+    private static Long anyUser(LoadTestData data, Random random) {
+        return data.userIds.get(random.nextInt(data.userIds.size()));
+    }
+
+    private static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).GET().timeout(Duration.ofSeconds(10)).build();
+    }
+
+    private static HttpRequest post(String url, String json) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .timeout(Duration.ofSeconds(10))
+                .build();
+    }
+}
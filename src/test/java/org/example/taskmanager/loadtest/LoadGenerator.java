@@ -0,0 +1,182 @@
+package org.example.taskmanager.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+// Gerador em modelo aberto: dispara requisições na taxa alvo sem esperar as respostas e mede a latência
+// a partir do instante planejado, para que um servidor lento não reduza a carga nem esconda a fila
+class LoadGenerator {
+
+    record Scenario(String name, int weight, Function<Random, HttpRequest> request) {
+    }
+
+    // throughput: respostas 2xx por segundo de relógio, da medição até a última resposta
+    record Result(String name, long requests, long errors, double throughput,
+                  double p50, double p95, double p99, double max) {
+
+        double errorRate() {
+            return requests == 0 ? 0 : (double) errors / requests;
+        }
+    }
+
+    private final HttpClient client;
+    private final ExecutorService executor;
+    private final int maxInFlight;
+    private final Random random;
+
+    LoadGenerator(int threads, int maxInFlight, long seed) {
+        this.executor = Executors.newFixedThreadPool(threads);
+        this.client = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.maxInFlight = maxInFlight;
+        this.random = new Random(seed);
+    }
+
+    // Resultados por cenário, mais uma linha "total"; só entram requisições planejadas depois do aquecimento
+    List<Result> run(List<Scenario> scenarios, int rps, Duration warmup, Duration duration) throws InterruptedException {
+        Map<Scenario, Samples> samples = new LinkedHashMap<>();
+        scenarios.forEach(scenario -> samples.put(scenario, new Samples()));
+        int totalWeight = scenarios.stream().mapToInt(Scenario::weight).sum();
+
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        long interval = TimeUnit.SECONDS.toNanos(1) / rps;
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * interval;
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            Scenario scenario = pick(scenarios, totalWeight);
+            Samples target = intended >= measureFrom ? samples.get(scenario) : null;
+            HttpRequest request = scenario.request().apply(random);
+
+            // Sem vaga, a requisição conta como erro em vez de acumular memória no cliente
+            if (!inFlight.tryAcquire()) {
+                if (target != null) {
+                    target.record(intended, System.nanoTime(), false);
+                }
+                continue;
+            }
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                inFlight.release();
+                if (target != null) {
+                    boolean ok = error == null && response.statusCode() / 100 == 2;
+                    target.record(intended, System.nanoTime(), ok);
+                }
+            });
+        }
+
+        inFlight.tryAcquire(maxInFlight, 30, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        // Um servidor que enfileira termina depois do fim planejado e a janela cresce junto
+        long measuredUntil = end;
+        for (Samples scenarioSamples : samples.values()) {
+            Long last = scenarioSamples.lastCompletion();
+            if (last != null && last - measuredUntil > 0) {
+                measuredUntil = last;
+            }
+        }
+        double seconds = (measuredUntil - measureFrom) / 1e9;
+        List<Result> results = new ArrayList<>();
+        Samples total = new Samples();
+        samples.forEach((scenario, scenarioSamples) -> {
+            results.add(scenarioSamples.result(scenario.name(), seconds));
+            total.addAll(scenarioSamples);
+        });
+        results.add(total.result("total", seconds));
+        return results;
+    }
+
+    private Scenario pick(List<Scenario> scenarios, int totalWeight) {
+        int roll = random.nextInt(totalWeight);
+        for (Scenario scenario : scenarios) {
+            roll -= scenario.weight();
+            if (roll < 0) {
+                return scenario;
+            }
+        }
+        throw new IllegalStateException("Pesos inválidos");
+    }
+
+    private static class Samples {
+        private long[] latencies = new long[1024];
+        private int size;
+        private long errors;
+        private long lastCompletion;
+
+        // Requisições rejeitadas pelo limite de vagas entram como erro e não contam na vazão
+        synchronized void record(long intendedNanos, long completedNanos, boolean ok) {
+            add(completedNanos - intendedNanos);
+            if (!ok) {
+                errors++;
+            }
+            if (size == 1 || completedNanos - lastCompletion > 0) {
+                lastCompletion = completedNanos;
+            }
+        }
+
+        synchronized void addAll(Samples other) {
+            synchronized (other) {
+                for (int i = 0; i < other.size; i++) {
+                    add(other.latencies[i]);
+                }
+                errors += other.errors;
+            }
+        }
+
+        // null sem amostras (System.nanoTime pode ser negativo, então não há valor neutro)
+        synchronized Long lastCompletion() {
+            return size == 0 ? null : lastCompletion;
+        }
+
+        synchronized Result result(String name, double seconds) {
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            long successes = size - errors;
+            return new Result(name, size, errors, seconds <= 0 ? 0 : successes / seconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                    size == 0 ? 0 : sorted[size - 1] / 1e6);
+        }
+
+        private void add(long latencyNanos) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = latencyNanos;
+        }
+
+        // Em milissegundos, pelo método nearest-rank
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.taskmanager.loadtest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+// Massa sintética gravada direto por JDBC: usuários, atividades e anos de progresso diário.
+// A semente fixa torna duas execuções com os mesmos parâmetros comparáveis.
+class LoadTestData {
+
+    static final String PASSWORD = "loadtest";
+    private static final String[] FREQUENCIES = {"DAILY", "DAILY", "WEEKLY", "MONTHLY"};
+    private static final int BATCH_SIZE = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Random random;
+
+    final List<Long> userIds = new ArrayList<>();
+    final List<Long> activityIds = new ArrayList<>();
+    // Pares (atividade, dia) sem progresso na massa, do dia mais recente para o mais antigo
+    final List<CheckInSlot> checkInSlots = new ArrayList<>();
+
+    record CheckInSlot(Long activityId, LocalDate date) {
+    }
+
+    LoadTestData(JdbcTemplate jdbcTemplate, long seed) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.random = new Random(seed);
+    }
+
+    static String email(int user) {
+        return "load" + user + "@example.com";
+    }
+
+    // Devolve o número de progressos gravados
+    long seed(int users, int activitiesPerUser, int years, double completionRate, String passwordHash) {
+        LocalDate today = LocalDate.now();
+        LocalDateTime created = today.minusYears(years).atStartOfDay();
+
+        List<Object[]> userRows = new ArrayList<>();
+        for (int user = 0; user < users; user++) {
+            userRows.add(new Object[]{"Usuário " + user, email(user), passwordHash, Timestamp.valueOf(created)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO user (name, email, hash_password, creation_date) VALUES (?, ?, ?, ?)",
+                userRows);
+        userIds.addAll(jdbcTemplate.queryForList("SELECT user_id FROM user ORDER BY user_id", Long.class));
+
+        List<Object[]> activityRows = new ArrayList<>();
+        for (Long userId : userIds) {
+            for (int activity = 0; activity < activitiesPerUser; activity++) {
+                activityRows.add(new Object[]{"Atividade " + activity, "Descrição da atividade " + activity,
+                        FREQUENCIES[activity % FREQUENCIES.length], Date.valueOf(today.minusYears(years)), true,
+                        Date.valueOf(today), userId});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO activity (title, description, frequency, init_date, active, " +
+                "next_due_date, user_id) VALUES (?, ?, ?, ?, ?, ?, ?)", activityRows);
+
+        List<Object[]> owners = new ArrayList<>();
+        jdbcTemplate.query("SELECT activity_id, user_id FROM activity ORDER BY activity_id",
+                row -> {
+                    owners.add(new Object[]{row.getLong(1), row.getLong(2)});
+                });
+
+        long progress = 0;
+        List<Object[]> progressRows = new ArrayList<>(BATCH_SIZE);
+        int days = years * 365;
+        for (Object[] owner : owners) {
+            activityIds.add((Long) owner[0]);
+            for (int day = days; day >= 0; day--) {
+                if (random.nextDouble() >= completionRate) {
+                    checkInSlots.add(new CheckInSlot((Long) owner[0], today.minusDays(day)));
+                    continue;
+                }
+                String status = random.nextInt(10) == 0 ? "STARTED" : "FINISHED";
+                progressRows.add(new Object[]{Date.valueOf(today.minusDays(day)), status, owner[0], owner[1]});
+                if (progressRows.size() == BATCH_SIZE) {
+                    progress += insertProgress(progressRows);
+                }
+            }
+        }
+        progress += insertProgress(progressRows);
+        checkInSlots.sort(Comparator.comparing(CheckInSlot::date).reversed());
+        return progress;
+    }
+
+    private int insertProgress(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("INSERT INTO progress (finish_date, status, activity_id, user_id) VALUES (?, ?, ?, ?)",
+                rows);
+        int inserted = rows.size();
+        rows.clear();
+        return inserted;
+    }
+}
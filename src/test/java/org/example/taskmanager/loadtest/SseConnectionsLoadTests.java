@@ -0,0 +1,221 @@
+package org.example.taskmanager.loadtest;
+
+import com.sun.management.UnixOperatingSystemMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.assertj.core.api.SoftAssertions;
+import org.example.taskmanager.event.ActivityChangedEvent;
+import org.example.taskmanager.event.ChangeType;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.function.Predicate;
+
+// Conexões SSE ociosas em um único nó: abre N conexões em /api/events (padrão 50 mil, 5 por usuário),
+// mede memória e threads com todas abertas, o tempo de entrega de um evento a uma amostra de usuários
+// e confirma que o heartbeat chega a todas. Cliente e servidor rodam na mesma JVM, então a memória
+// medida inclui os dois lados. Fora do build padrão: mvn -Ploadtest test -Dtest=SseConnectionsLoadTests
+@Tag("loadtest")
+@ActiveProfiles("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "app.events.heartbeat-interval=5000")
+class SseConnectionsLoadTests {
+
+    private static final int CONNECTIONS_PER_USER = 5;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void idleConnectionsOnOneNode() throws Exception {
+        int target = Integer.getInteger("loadtest.sse.connections", 50_000);
+        int sampleUsers = Math.min(Integer.getInteger("loadtest.sse.sample-users", 1000),
+                target / CONNECTIONS_PER_USER);
+        int maxThreadGrowth = Integer.getInteger("loadtest.sse.max-thread-growth", 1000);
+        Duration timeout = Duration.ofSeconds(Integer.getInteger("loadtest.sse.timeout-seconds", 120));
+        warnIfFewFileDescriptors(target);
+
+        long heapBefore = usedHeapAfterGc();
+        int threadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+        List<Client> clients = new ArrayList<>(target);
+        Map<String, Object> report = new LinkedHashMap<>();
+
+        try (Selector selector = Selector.open()) {
+            long start = System.nanoTime();
+            for (int i = 0; i < target; i++) {
+                clients.add(Client.open(selector, port, (long) i / CONNECTIONS_PER_USER + 1));
+            }
+            await(selector, clients, client -> client.connected || client.failed, timeout);
+            report.put("open.seconds", (System.nanoTime() - start) / 1e9);
+
+            long connected = clients.stream().filter(client -> client.connected).count();
+            long heapAfter = usedHeapAfterGc();
+            report.put("connections", connected);
+            report.put("server.connections", meterRegistry.get("events.connections").gauge().value());
+            report.put("heap.bytes-per-connection", connected == 0 ? 0 : (heapAfter - heapBefore) / connected);
+            report.put("threads.growth", ManagementFactory.getThreadMXBean().getThreadCount() - threadsBefore);
+
+            // Um evento para cada usuário da amostra, como depois de um commit sem transação
+            List<Client> sample = clients.subList(0, sampleUsers * CONNECTIONS_PER_USER);
+            long published = System.nanoTime();
+            for (long userId = 1; userId <= sampleUsers; userId++) {
+                eventPublisher.publishEvent(new ActivityChangedEvent(ChangeType.UPDATED, userId, 1L, true, true));
+            }
+            await(selector, sample, client -> client.eventAt != 0 || client.closed, timeout);
+            double[] latencies = sample.stream().filter(client -> client.eventAt != 0)
+                    .mapToDouble(client -> (client.eventAt - published) / 1e6).sorted().toArray();
+            report.put("event.delivered", latencies.length);
+            report.put("event.p50-ms", percentile(latencies, 0.50));
+            report.put("event.p99-ms", percentile(latencies, 0.99));
+            report.put("event.max-ms", percentile(latencies, 1.0));
+
+            clients.forEach(client -> client.heartbeat = false);
+            await(selector, clients, client -> client.heartbeat || client.closed, timeout);
+            report.put("heartbeat.received", clients.stream().filter(client -> client.heartbeat).count());
+            report.put("evicted", meterRegistry.get("events.evicted").counter().count());
+        } finally {
+            for (Client client : clients) {
+                client.channel.close();
+            }
+        }
+
+        print(report);
+        save(report, Path.of("target", "sse-connections-report.properties"));
+
+        SoftAssertions softly = new SoftAssertions();
+        softly.assertThat(report.get("connections")).as("conexões abertas").isEqualTo((long) target);
+        softly.assertThat((double) report.get("server.connections")).as("conexões no servidor")
+                .isEqualTo((double) target);
+        softly.assertThat((int) report.get("threads.growth")).as("threads a mais com as conexões abertas")
+                .isLessThanOrEqualTo(maxThreadGrowth);
+        softly.assertThat(report.get("event.delivered")).as("eventos entregues")
+                .isEqualTo(sampleUsers * CONNECTIONS_PER_USER);
+        softly.assertThat(report.get("heartbeat.received")).as("conexões com heartbeat").isEqualTo((long) target);
+        softly.assertThat((double) report.get("evicted")).as("conexões descartadas").isZero();
+        softly.assertAll();
+    }
+
+    // Lê o que chegou até todos os clientes cumprirem a condição ou o tempo acabar
+    private static void await(Selector selector, List<Client> clients, Predicate<Client> done, Duration timeout)
+            throws IOException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        ByteBuffer buffer = ByteBuffer.allocate(16 * 1024);
+        while (!clients.stream().allMatch(done) && System.nanoTime() < deadline) {
+            selector.select(100);
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                ((Client) key.attachment()).read(key, buffer);
+            }
+        }
+    }
+
+    // Cliente e servidor na mesma JVM: duas pontas por conexão
+    private static void warnIfFewFileDescriptors(int connections) {
+        if (ManagementFactory.getOperatingSystemMXBean() instanceof UnixOperatingSystemMXBean unix) {
+            long needed = 2L * connections + 1000;
+            if (unix.getMaxFileDescriptorCount() < needed) {
+                System.out.printf("Aviso: limite de arquivos abertos %d < %d (ulimit -n)%n",
+                        unix.getMaxFileDescriptorCount(), needed);
+            }
+        }
+    }
+
+    private static long usedHeapAfterGc() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static double percentile(double[] sorted, double p) {
+        return sorted.length == 0 ? 0 : sorted[(int) Math.ceil(p * sorted.length) - 1];
+    }
+
+    private static void print(Map<String, Object> report) {
+        report.forEach((name, value) -> System.out.printf("%-28s %s%n", name, value));
+    }
+
+    private static void save(Map<String, Object> report, Path file) throws IOException {
+        Properties properties = new Properties();
+        report.forEach((name, value) -> properties.setProperty(name, String.valueOf(value)));
+        Files.createDirectories(file.getParent());
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            properties.store(writer, "Conexões SSE ociosas");
+        }
+    }
+
+    // Uma conexão do cliente; guarda só o fim do que já leu, para achar marcadores quebrados entre leituras
+    private static class Client {
+        private final SocketChannel channel;
+        private String tail = "";
+        private volatile boolean connected;
+        private volatile boolean failed;
+        private volatile boolean closed;
+        private volatile boolean heartbeat;
+        private volatile long eventAt;
+
+        private Client(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        static Client open(Selector selector, int port, long userId) throws IOException {
+            SocketChannel channel = SocketChannel.open(new InetSocketAddress("localhost", port));
+            channel.write(StandardCharsets.US_ASCII.encode("GET /api/events/user/" + userId + " HTTP/1.1\r\n" +
+                    "Host: localhost\r\nAccept: text/event-stream\r\n\r\n"));
+            channel.configureBlocking(false);
+            Client client = new Client(channel);
+            channel.register(selector, SelectionKey.OP_READ, client);
+            return client;
+        }
+
+        void read(SelectionKey key, ByteBuffer buffer) throws IOException {
+            buffer.clear();
+            int read = channel.read(buffer);
+            if (read < 0) {
+                closed = true;
+                failed = !connected;
+                key.cancel();
+                return;
+            }
+            buffer.flip();
+            String text = tail + StandardCharsets.US_ASCII.decode(buffer);
+            if (!connected && text.startsWith("HTTP/1.1 ") && !text.startsWith("HTTP/1.1 200")) {
+                failed = true;
+            }
+            connected |= text.contains(":connected");
+            heartbeat |= text.contains(":heartbeat");
+            if (eventAt == 0 && text.contains("event:activity")) {
+                eventAt = System.nanoTime();
+            }
+            tail = text.substring(Math.max(0, text.length() - 32));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package org.example.taskmanager.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GradientConcurrencyLimiterTests {
+
+    private static final long MILLIS = 1_000_000L;
+
+    @Test
+    void rejectsAboveLimitAndAcceptsAfterRelease() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(2, 1, 10, 2.0, 0.2);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+
+        limiter.release();
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+    }
+
+    @Test
+    void limitGrowsWhileLatencyIsStable() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(20, 10, 400, 2.0, 0.2);
+
+        windows(limiter, 20, 10 * MILLIS);
+
+        assertThat(limiter.getLimit()).isGreaterThan(20);
+        assertThat(limiter.getMinRttMillis()).isEqualTo(10);
+    }
+
+    @Test
+    void limitShrinksWhenLatencyRises() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(200, 10, 400, 2.0, 0.2);
+        windows(limiter, 1, 10 * MILLIS);
+        int before = limiter.getLimit();
+
+        // Latência 10x a mínima: gradiente no piso de 0,5
+        windows(limiter, 10, 100 * MILLIS);
+
+        assertThat(limiter.getLimit()).isLessThan(before);
+        assertThat(limiter.getMinRttMillis()).isEqualTo(10);
+    }
+
+    @Test
+    void limitStaysWithinBounds() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(50, 10, 60, 2.0, 0.2);
+
+        windows(limiter, 100, 10 * MILLIS);
+        assertThat(limiter.getLimit()).isEqualTo(60);
+
+        windows(limiter, 200, 1000 * MILLIS);
+        assertThat(limiter.getLimit()).isEqualTo(10);
+    }
+
+    // Cada janela do limitador fecha a cada 50 amostras
+    private static void windows(GradientConcurrencyLimiter limiter, int windows, long rttNanos) {
+        for (int i = 0; i < windows * 50; i++) {
+            limiter.tryAcquire();
+            limiter.release(rttNanos);
+        }
+    }
+}
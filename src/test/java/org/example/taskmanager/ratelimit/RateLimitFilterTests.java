@@ -0,0 +1,24 @@
+package org.example.taskmanager.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTests {
+
+    @Test
+    void pathUserIdIsNotUsedAsKey() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/progress/user/42/stats");
+        request.setRemoteAddr("203.0.113.7");
+
+        assertThat(RateLimitFilter.clientKey(request)).isEqualTo("ip:203.0.113.7");
+    }
+
+    @Test
+    void onlyDatabaseScansAreExpensive() {
+        assertThat(EndpointClass.of("/api/progress/date-range")).isEqualTo(EndpointClass.EXPENSIVE);
+        assertThat(EndpointClass.of("/api/progress/count/status/FINISHED")).isEqualTo(EndpointClass.DEFAULT);
+        assertThat(EndpointClass.of("/api/auth/login")).isEqualTo(EndpointClass.AUTH);
+    }
+}
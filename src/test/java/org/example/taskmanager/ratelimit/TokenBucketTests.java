@@ -0,0 +1,55 @@
+package org.example.taskmanager.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTests {
+
+    @Test
+    void burstIsLimitedToCapacity() {
+        TokenBucket bucket = new TokenBucket(3, 0.001);
+
+        assertThat(bucket.tryConsume()).isTrue();
+        assertThat(bucket.tryConsume()).isTrue();
+        assertThat(bucket.tryConsume()).isTrue();
+        assertThat(bucket.tryConsume()).isFalse();
+        assertThat(bucket.isFull()).isFalse();
+    }
+
+    @Test
+    void refillsAtConfiguredRate() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(2, 100);
+        bucket.tryConsume();
+        bucket.tryConsume();
+        assertThat(bucket.tryConsume()).isFalse();
+
+        // 100 tokens/s: 50 ms são mais que suficientes para repor os dois
+        Thread.sleep(50);
+
+        assertThat(bucket.isFull()).isTrue();
+        assertThat(bucket.tryConsume()).isTrue();
+        assertThat(bucket.tryConsume()).isTrue();
+        assertThat(bucket.tryConsume()).isFalse();
+    }
+
+    @Test
+    void neverRefillsAboveCapacity() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(1, 1000);
+        Thread.sleep(20);
+
+        assertThat(bucket.tryConsume()).isTrue();
+        assertThat(bucket.tryConsume()).isFalse();
+    }
+
+    @Test
+    void retryAfterFollowsRefillRate() {
+        TokenBucket bucket = new TokenBucket(1, 0.2);
+        assertThat(bucket.secondsUntilNextToken()).isZero();
+
+        bucket.tryConsume();
+
+        // 0,2 token/s: um token a cada 5 s
+        assertThat(bucket.secondsUntilNextToken()).isBetween(4L, 5L);
+    }
+}
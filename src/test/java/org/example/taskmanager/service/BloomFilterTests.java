@@ -0,0 +1,80 @@
+package org.example.taskmanager.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTests {
+
+    private static final int PROBES = 100_000;
+
+    @Test
+    void sizingFollowsExpectedInsertionsAndRate() {
+        // m = -n ln p / (ln 2)^2 = 958.506, arredondado para palavras de 64 bits; k = m/n ln 2
+        BloomFilter filter = new BloomFilter(100_000, 0.01);
+        assertThat(filter.getBitCount()).isEqualTo(958_528L);
+        assertThat(filter.getHashCount()).isEqualTo(7);
+
+        BloomFilter stricter = new BloomFilter(100_000, 0.001);
+        assertThat(stricter.getBitCount()).isGreaterThan(filter.getBitCount());
+        assertThat(stricter.getHashCount()).isEqualTo(10);
+    }
+
+    @Test
+    void tinyExpectationStillWorks() {
+        BloomFilter filter = new BloomFilter(0, 0.01);
+        filter.put("a@example.com");
+
+        assertThat(filter.getBitCount()).isEqualTo(64);
+        assertThat(filter.getHashCount()).isPositive();
+        assertThat(filter.mightContain("a@example.com")).isTrue();
+    }
+
+    @Test
+    void hasNoFalseNegatives() {
+        BloomFilter filter = filled(50_000, 0.01);
+
+        for (int i = 0; i < 50_000; i++) {
+            assertThat(filter.mightContain(member(i))).isTrue();
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearConfiguredRate() {
+        assertThat(falsePositiveRate(filled(100_000, 0.01))).isLessThan(0.015);
+        assertThat(falsePositiveRate(filled(100_000, 0.001))).isLessThan(0.0015);
+    }
+
+    @Test
+    void falsePositiveRateDegradesWhenOverfilled() {
+        // Por isso o rebuild dimensiona para o dobro dos usuários existentes
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 40_000; i++) {
+            filter.put(member(i));
+        }
+
+        assertThat(falsePositiveRate(filter)).isGreaterThan(0.1);
+    }
+
+    private static BloomFilter filled(int insertions, double rate) {
+        BloomFilter filter = new BloomFilter(insertions, rate);
+        for (int i = 0; i < insertions; i++) {
+            filter.put(member(i));
+        }
+        return filter;
+    }
+
+    private static double falsePositiveRate(BloomFilter filter) {
+        int positives = 0;
+        for (int i = 0; i < PROBES; i++) {
+            if (filter.mightContain("other" + i + "@example.org")) {
+                positives++;
+            }
+        }
+        return (double) positives / PROBES;
+    }
+
+    private static String member(int i) {
+        return "user" + i + "@example.com";
+    }
+}
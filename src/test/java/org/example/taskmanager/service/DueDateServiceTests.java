@@ -0,0 +1,72 @@
+package org.example.taskmanager.service;
+
+import org.example.taskmanager.entity.Activity.Frequency;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DueDateServiceTests {
+
+    @Test
+    void firstOccurrenceWithoutProgress() {
+        LocalDate init = LocalDate.of(2024, 3, 10);
+
+        assertThat(DueDateService.nextDueDate(Frequency.DAILY, init, null)).isEqualTo(init);
+        assertThat(DueDateService.nextDueDate(Frequency.WEEKLY, init, init.minusDays(1))).isEqualTo(init);
+    }
+
+    @Test
+    void nextOccurrenceIsAfterLastFinish() {
+        LocalDate init = LocalDate.of(2024, 3, 10);
+
+        assertThat(DueDateService.nextDueDate(Frequency.DAILY, init, init)).isEqualTo(LocalDate.of(2024, 3, 11));
+        assertThat(DueDateService.nextDueDate(Frequency.WEEKLY, init, LocalDate.of(2024, 3, 16)))
+                .isEqualTo(LocalDate.of(2024, 3, 17));
+        assertThat(DueDateService.nextDueDate(Frequency.WEEKLY, init, LocalDate.of(2024, 3, 17)))
+                .isEqualTo(LocalDate.of(2024, 3, 24));
+    }
+
+    @Test
+    void dailyCrossesLeapDayAndYearEnd() {
+        assertThat(DueDateService.nextDueDate(Frequency.DAILY, LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 28)))
+                .isEqualTo(LocalDate.of(2024, 2, 29));
+        assertThat(DueDateService.nextDueDate(Frequency.DAILY, LocalDate.of(2023, 2, 1), LocalDate.of(2023, 2, 28)))
+                .isEqualTo(LocalDate.of(2023, 3, 1));
+        assertThat(DueDateService.nextDueDate(Frequency.WEEKLY, LocalDate.of(2024, 12, 4), LocalDate.of(2024, 12, 28)))
+                .isEqualTo(LocalDate.of(2025, 1, 1));
+    }
+
+    @Test
+    void monthlyClampsToMonthEndWithoutDrifting() {
+        LocalDate init = LocalDate.of(2024, 1, 31);
+
+        // Fevereiro de ano bissexto e de ano comum
+        assertThat(DueDateService.nextDueDate(Frequency.MONTHLY, init, init)).isEqualTo(LocalDate.of(2024, 2, 29));
+        assertThat(DueDateService.nextDueDate(Frequency.MONTHLY, LocalDate.of(2023, 1, 31), LocalDate.of(2023, 1, 31)))
+                .isEqualTo(LocalDate.of(2023, 2, 28));
+        // Depois de fevereiro volta ao dia 31, não fica preso no 29
+        assertThat(DueDateService.nextDueDate(Frequency.MONTHLY, init, LocalDate.of(2024, 2, 29)))
+                .isEqualTo(LocalDate.of(2024, 3, 31));
+        assertThat(DueDateService.nextDueDate(Frequency.MONTHLY, init, LocalDate.of(2024, 4, 30)))
+                .isEqualTo(LocalDate.of(2024, 5, 31));
+    }
+
+    @Test
+    void monthlyFromLeapDay() {
+        LocalDate init = LocalDate.of(2024, 2, 29);
+
+        assertThat(DueDateService.nextDueDate(Frequency.MONTHLY, init, init)).isEqualTo(LocalDate.of(2024, 3, 29));
+        assertThat(DueDateService.nextDueDate(Frequency.MONTHLY, init, LocalDate.of(2025, 2, 27)))
+                .isEqualTo(LocalDate.of(2025, 2, 28));
+        assertThat(DueDateService.nextDueDate(Frequency.MONTHLY, init, LocalDate.of(2025, 2, 28)))
+                .isEqualTo(LocalDate.of(2025, 3, 29));
+    }
+
+    @Test
+    void lateCheckInSkipsMissedOccurrences() {
+        assertThat(DueDateService.nextDueDate(Frequency.WEEKLY, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 5)))
+                .isEqualTo(LocalDate.of(2024, 3, 11));
+    }
+}
@@ -0,0 +1,89 @@
+package org.example.taskmanager.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.taskmanager.datasource.ShardRouter;
+import org.example.taskmanager.event.ChangeType;
+import org.example.taskmanager.event.UserChangedEvent;
+import org.example.taskmanager.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EmailExistenceFilterTests {
+
+    private UserRepository userRepository;
+    private EmailDirectoryService emailDirectoryService;
+    private EmailExistenceFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        emailDirectoryService = mock(EmailDirectoryService.class);
+        filter = new EmailExistenceFilter(userRepository, new ShardRouter(1), emailDirectoryService,
+                new SimpleMeterRegistry(), 0.01, 100, true, Duration.ofMinutes(1));
+
+        UserRepository.EmailView existing = mock(UserRepository.EmailView.class);
+        when(existing.getId()).thenReturn(1L);
+        when(existing.getEmail()).thenReturn("Ana@Example.com");
+        when(userRepository.findEmailsAfter(any(), any())).thenReturn(List.of(existing));
+        when(userRepository.existsByEmail(anyString())).thenReturn(true);
+    }
+
+    @Test
+    void negativesSkipTheDatabase() {
+        filter.rebuild();
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(filter.exists("novo" + i + "@example.com")).isFalse();
+        }
+        assertThat(filter.exists("ana@example.com")).isTrue();
+
+        // Só "ana" e os poucos falsos positivos (~1%) chegam ao banco
+        verify(userRepository, atMost(30)).existsByEmail(anyString());
+        verify(emailDirectoryService, never()).claimedSince(any());
+    }
+
+    @Test
+    void claimsFromOtherInstancesReachTheFilter() {
+        when(emailDirectoryService.claimedSince(any())).thenReturn(List.of("Bia@Example.com"));
+        filter.rebuild();
+        assertThat(filter.exists("bia@example.com")).isFalse();
+
+        filter.syncRecentClaims();
+
+        assertThat(filter.exists("bia@example.com")).isTrue();
+        // Lê desde o início do rebuild menos a sobreposição, para cobrir relógios adiantados
+        ArgumentCaptor<Instant> since = ArgumentCaptor.forClass(Instant.class);
+        verify(emailDirectoryService).claimedSince(since.capture());
+        assertThat(since.getValue()).isBefore(Instant.now().minus(Duration.ofSeconds(59)));
+    }
+
+    @Test
+    void withoutFilterEveryLookupGoesToTheDatabase() {
+        // Sem rebuild não há filtro: tudo vai ao banco e o sync não roda
+        filter.syncRecentClaims();
+        verify(emailDirectoryService, never()).claimedSince(any());
+        assertThat(filter.exists("novo@example.com")).isTrue();
+    }
+
+    @Test
+    void localChangesReachTheFilter() {
+        filter.rebuild();
+        filter.onUserChanged(new UserChangedEvent(ChangeType.UPDATED, 2L, "Caio@Example.com"));
+
+        assertThat(filter.exists("caio@example.com")).isTrue();
+    }
+}
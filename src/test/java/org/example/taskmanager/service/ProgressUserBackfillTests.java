@@ -0,0 +1,74 @@
+package org.example.taskmanager.service;
+
+import org.example.taskmanager.datasource.ShardRouter;
+import org.example.taskmanager.repository.ProgressRepository;
+import org.example.taskmanager.repository.ProgressUserColumn;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProgressUserBackfillTests {
+
+    private ProgressRepository progressRepository;
+    private JobLockService jobLockService;
+    private ProgressUserColumn progressUserColumn;
+    private ProgressUserBackfill backfill;
+
+    @BeforeEach
+    void setUp() {
+        progressRepository = mock(ProgressRepository.class);
+        jobLockService = mock(JobLockService.class);
+        progressUserColumn = new ProgressUserColumn();
+        backfill = new ProgressUserBackfill(progressRepository, new ShardRouter(1), progressUserColumn, jobLockService);
+        ReflectionTestUtils.setField(backfill, "batchSize", 100);
+        ReflectionTestUtils.setField(backfill, "backfillOnStartup", false);
+
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(3).run();
+            return true;
+        }).when(jobLockService).runExclusively(eq("progress-user-backfill"), any(), any(), any());
+    }
+
+    @Test
+    void rowsWrittenAfterTheBackfillSwitchReadsBackUntilFilled() {
+        when(progressRepository.existsByUserIdIsNull()).thenReturn(false);
+        backfill.run(null);
+        assertThat(progressUserColumn.isBackfilled()).isTrue();
+
+        // Instância da versão anterior grava progresso sem user_id
+        when(progressRepository.existsByUserIdIsNull()).thenReturn(true);
+        when(progressRepository.backfillUserId(anyInt())).thenReturn(0);
+        backfill.recheck();
+        assertThat(progressUserColumn.isBackfilled()).isFalse();
+
+        when(progressRepository.existsByUserIdIsNull()).thenReturn(true, false);
+        when(progressRepository.backfillUserId(anyInt())).thenReturn(3);
+        backfill.recheck();
+
+        assertThat(progressUserColumn.isBackfilled()).isTrue();
+        verify(progressRepository, times(2)).backfillUserId(100);
+    }
+
+    @Test
+    void startupWithoutBackfillIsFilledByTheRecheck() {
+        when(progressRepository.existsByUserIdIsNull()).thenReturn(true);
+        backfill.run(null);
+        assertThat(progressUserColumn.isBackfilled()).isFalse();
+
+        when(progressRepository.existsByUserIdIsNull()).thenReturn(true, false);
+        when(progressRepository.backfillUserId(anyInt())).thenReturn(7);
+        backfill.recheck();
+
+        assertThat(progressUserColumn.isBackfilled()).isTrue();
+    }
+}